@@ -1,13 +1,23 @@
 package Algorithms;
 
 import java.util.Arrays;
+import java.util.Random;
 
 /**
  * Created by Naren on 5/19/17.
+ *
+ * The static methods are loop-based searches over an int[] sorted in
+ * ascending order. Each step halves the range with a conditional move
+ * instead of a branch, and the last WINDOW keys (one cache line) are counted
+ * in a straight loop. The batched versions run GROUP queries in lockstep,
+ * so their loads overlap instead of waiting on one cache miss at a time.
  */
 public class BinarySearch {
 
-    private int search(int[] arr, int num) {
+    private static final int WINDOW = 16;
+    private static final int GROUP = 16;
+
+    public int search(int[] arr, int num) {
         return binarySearchUtil(arr, num, 0, arr.length - 1);
     }
 
@@ -27,6 +37,89 @@ public class BinarySearch {
         }
     }
 
+    // Index of the first key >= key, or sorted.length if there is none.
+    public static int lowerBound(int[] sorted, int key) {
+        int base = 0, n = sorted.length;
+        while(n > WINDOW) {
+            int half = n >>> 1;
+            base = sorted[base + half] < key ? base + half : base;
+            n -= half;
+        }
+        return base + countBelow(sorted, base, n, key);
+    }
+
+    // Index of the first key > key, or sorted.length if there is none.
+    public static int upperBound(int[] sorted, int key) {
+        return key == Integer.MAX_VALUE ? sorted.length : lowerBound(sorted, key + 1);
+    }
+
+    // {lowerBound, upperBound}: the keys equal to key are sorted[range[0]] to sorted[range[1] - 1].
+    public static int[] equalRange(int[] sorted, int key) {
+        return new int[]{lowerBound(sorted, key), upperBound(sorted, key)};
+    }
+
+    // The answer lies in [base, base + n], so it is base plus the keys in the window below key.
+    private static int countBelow(int[] sorted, int base, int n, int key) {
+        int count = 0;
+        for(int i = base; i < base + n; i++) {
+            count += sorted[i] < key ? 1 : 0;
+        }
+        return count;
+    }
+
+    // results[i] = lowerBound(sorted, queries[i]).
+    public static void lowerBound(int[] sorted, int[] queries, int[] results) {
+        int[] base = new int[GROUP];
+        for(int from = 0; from < queries.length; from += GROUP) {
+            int count = Math.min(GROUP, queries.length - from);
+            Arrays.fill(base, 0);
+            // Every query takes the same number of steps, so the group moves down together.
+            int n = sorted.length;
+            while(n > WINDOW) {
+                int half = n >>> 1;
+                for(int q = 0; q < count; q++) {
+                    int b = base[q];
+                    base[q] = sorted[b + half] < queries[from + q] ? b + half : b;
+                }
+                n -= half;
+            }
+            for(int q = 0; q < count; q++) {
+                results[from + q] = base[q] + countBelow(sorted, base[q], n, queries[from + q]);
+            }
+        }
+    }
+
+    // results[i] = upperBound(sorted, queries[i]).
+    public static void upperBound(int[] sorted, int[] queries, int[] results) {
+        int[] shifted = new int[queries.length];
+        for(int i = 0; i < queries.length; i++) {
+            // MAX_VALUE + 1 would wrap; its upper bound is the end, like the lower bound of anything larger.
+            shifted[i] = queries[i] == Integer.MAX_VALUE ? Integer.MAX_VALUE : queries[i] + 1;
+        }
+        lowerBound(sorted, shifted, results);
+        for(int i = 0; i < queries.length; i++) {
+            if(queries[i] == Integer.MAX_VALUE) {
+                results[i] = sorted.length;
+            }
+        }
+    }
+
+    // from[i] and to[i] bound the keys equal to queries[i].
+    public static void equalRange(int[] sorted, int[] queries, int[] from, int[] to) {
+        lowerBound(sorted, queries, from);
+        upperBound(sorted, queries, to);
+    }
+
+    // results[i] is an index of queries[i] in sorted, or -1 if it is absent.
+    public static void search(int[] sorted, int[] queries, int[] results) {
+        lowerBound(sorted, queries, results);
+        for(int i = 0; i < queries.length; i++) {
+            if(results[i] == sorted.length || sorted[results[i]] != queries[i]) {
+                results[i] = -1;
+            }
+        }
+    }
+
     public static void main(String[] args) {
 
         BinarySearch search = new BinarySearch();
@@ -39,5 +132,44 @@ public class BinarySearch {
         System.out.print(search.search(arr, 10));
         System.out.print(search.search(arr, 2));
         System.out.print(search.search(arr, 3));
+        System.out.println(" " + Arrays.toString(equalRange(arr, 3)));
+
+        // Probe throughput: per-key Arrays.binarySearch against the branchless and batched searches.
+        int queryCount = 1 << 22;
+        Random random = new Random(43);
+        int[] queries = new int[queryCount];
+        int[] results = new int[queryCount];
+        for(int n = 1 << 10; n <= 1 << 26; n <<= 4) {
+            int[] sorted = new int[n];
+            for(int i = 0; i < n; i++) {
+                sorted[i] = 2 * i;
+            }
+            for(int i = 0; i < queryCount; i++) {
+                queries[i] = random.nextInt(2 * n);
+            }
+            for(int round = 0; round < 2; round++) {
+                long found = 0;
+                long start = System.nanoTime();
+                for(int q : queries) {
+                    if(Arrays.binarySearch(sorted, q) >= 0) found++;
+                }
+                long arraysNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                for(int q : queries) {
+                    int i = lowerBound(sorted, q);
+                    if(i < n && sorted[i] == q) found--;
+                }
+                long singleNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                search(sorted, queries, results);
+                long batchedNanos = System.nanoTime() - start;
+                for(int r : results) {
+                    if(r >= 0) found++;
+                }
+                System.out.printf("%8dKB: Arrays.binarySearch %.1fM/s, lowerBound %.1fM/s, batched %.1fM/s (%d found)%n",
+                        4L * n >> 10, queryCount * 1e3 / arraysNanos, queryCount * 1e3 / singleNanos,
+                        queryCount * 1e3 / batchedNanos, found);
+            }
+        }
     }
 }
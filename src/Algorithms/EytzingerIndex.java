@@ -0,0 +1,230 @@
+package Algorithms;
+
+import Datastructures.AVLTree;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Read-only index over a sorted int[] stored in Eytzinger (breadth first)
+ * order: the root is at 1 and the children of k are at 2k and 2k + 1. The
+ * first levels of the search share a few cache lines at the front of the
+ * array, and each step is k = 2k + (b[k] < x). The loop body has no
+ * unpredictable branch, so the CPU can keep loading ahead. Java has no
+ * prefetch instruction, so the batched lookups take its place: they walk
+ * 16 queries down the tree level by level, and the 16 independent loads at
+ * each level are all in flight at the same time.
+ */
+public class EytzingerIndex {
+
+    private static final int BATCH = 16;
+
+    private final int[] b;
+    private final int n;
+    // Number of levels; all but the last are full.
+    private final int levels;
+
+    public EytzingerIndex(int[] sorted) {
+        n = sorted.length;
+        b = new int[n + 1];
+        levels = 32 - Integer.numberOfLeadingZeros(n);
+        fill(sorted, 0, 1);
+    }
+
+    // In-order walk of the implicit tree; returns the next index of sorted to place.
+    private int fill(int[] sorted, int i, int k) {
+        if (k <= n) {
+            i = fill(sorted, i, 2 * k);
+            b[k] = sorted[i++];
+            i = fill(sorted, i, 2 * k + 1);
+        }
+        return i;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean contains(int x) {
+        int k = slot(x);
+        return k != 0 && b[k] == x;
+    }
+
+    // Index in the sorted array of the first key >= x, or size() if there is none.
+    public int lowerBound(int x) {
+        return rank(slot(x));
+    }
+
+    // results[i] = contains(queries[i]).
+    public void contains(int[] queries, boolean[] results) {
+        int[] slots = new int[BATCH];
+        for (int from = 0; from < queries.length; from += BATCH) {
+            int count = Math.min(BATCH, queries.length - from);
+            slots(queries, from, count, slots);
+            for (int j = 0; j < count; j++) {
+                results[from + j] = slots[j] != 0 && b[slots[j]] == queries[from + j];
+            }
+        }
+    }
+
+    // results[i] = lowerBound(queries[i]).
+    public void lowerBound(int[] queries, int[] results) {
+        int[] slots = new int[BATCH];
+        for (int from = 0; from < queries.length; from += BATCH) {
+            int count = Math.min(BATCH, queries.length - from);
+            slots(queries, from, count, slots);
+            for (int j = 0; j < count; j++) {
+                results[from + j] = rank(slots[j]);
+            }
+        }
+    }
+
+    /**
+     * Descends to a leaf, going right whenever b[k] < x. The bits of k then
+     * spell the path taken, and shifting off the trailing right turns (plus
+     * the final left turn) gives the last node where the search went left,
+     * which is the first key >= x. That is 0 when the search never went left.
+     */
+    private int slot(int x) {
+        int[] b = this.b;
+        int k = 1;
+        while (k <= n) {
+            k = 2 * k + (b[k] < x ? 1 : 0);
+        }
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    private void slots(int[] queries, int from, int count, int[] slots) {
+        int[] b = this.b;
+        Arrays.fill(slots, 0, count, 1);
+        // Every level but the last is full, so these steps need no bounds check.
+        for (int level = 1; level < levels; level++) {
+            for (int j = 0; j < count; j++) {
+                int k = slots[j];
+                slots[j] = 2 * k + (b[k] < queries[from + j] ? 1 : 0);
+            }
+        }
+        for (int j = 0; j < count; j++) {
+            int k = slots[j];
+            if (k <= n) {
+                k = 2 * k + (b[k] < queries[from + j] ? 1 : 0);
+            }
+            slots[j] = k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+        }
+    }
+
+    // Position of slot k in sorted order, worked out from its path without touching memory.
+    private int rank(int k) {
+        if (k == 0) {
+            return n;
+        }
+        int rank = subtreeSize(2 * k);
+        for (; k > 1; k >>>= 1) {
+            if ((k & 1) != 0) {
+                rank += subtreeSize(k - 1) + 1;
+            }
+        }
+        return rank;
+    }
+
+    private int subtreeSize(int k) {
+        if (k > n) {
+            return 0;
+        }
+        int height = levels - (31 - Integer.numberOfLeadingZeros(k));
+        long bottom = (long) k << (height - 1);
+        long last = Math.max(0, Math.min(n - bottom + 1, 1L << (height - 1)));
+        return (1 << (height - 1)) - 1 + (int) last;
+    }
+
+    private static double nanosPerQuery(long start, int queries) {
+        return (double) (System.nanoTime() - start) / queries;
+    }
+
+    /**
+     * Lookup cost from L1-sized arrays up to 1GB. The largest sizes need room
+     * for the keys twice over and are skipped when the heap is too small
+     * (run with -Xmx4g to include 1GB).
+     */
+    public static void main(String[] args) {
+        int[] small = {1, 3, 5, 7, 9, 11};
+        EytzingerIndex demo = new EytzingerIndex(small);
+        System.out.println(demo.contains(7) + " " + demo.contains(8) + " " + demo.lowerBound(8) + " " + demo.lowerBound(12));
+
+        int[] sizes = {1 << 10, 1 << 14, 1 << 18, 1 << 22, 1 << 26, 1 << 28};
+        int queryCount = 1 << 22;
+        Random random = new Random(31);
+        BinarySearch recursive = new BinarySearch();
+
+        for (int n : sizes) {
+            if (3 * 4L * n > Runtime.getRuntime().maxMemory()) {
+                System.out.printf("%6dMB: skipped, heap too small%n", 4L * n >> 20);
+                continue;
+            }
+            // Even keys, so about half of the random queries are present.
+            int[] sorted = new int[n];
+            for (int i = 0; i < n; i++) {
+                sorted[i] = 2 * i;
+            }
+            int[] queries = new int[queryCount];
+            for (int i = 0; i < queryCount; i++) {
+                queries[i] = random.nextInt(2 * n);
+            }
+            EytzingerIndex index = new EytzingerIndex(sorted);
+            boolean[] results = new boolean[queryCount];
+            AVLTree tree = null;
+            if (n <= 1 << 22) {
+                tree = new AVLTree();
+                for (int key : sorted) {
+                    tree.add(key);
+                }
+            }
+
+            for (int round = 0; round < 2; round++) {
+                int found = 0;
+                long start = System.nanoTime();
+                for (int q : queries) {
+                    if (Arrays.binarySearch(sorted, q) >= 0) found++;
+                }
+                double arrays = nanosPerQuery(start, queryCount);
+
+                start = System.nanoTime();
+                for (int q : queries) {
+                    if (recursive.search(sorted, q) >= 0) found--;
+                }
+                double util = nanosPerQuery(start, queryCount);
+
+                start = System.nanoTime();
+                for (int q : queries) {
+                    if (index.contains(q)) found++;
+                }
+                double single = nanosPerQuery(start, queryCount);
+
+                start = System.nanoTime();
+                index.contains(queries, results);
+                double batched = nanosPerQuery(start, queryCount);
+                for (boolean r : results) {
+                    if (r) found--;
+                }
+
+                String avl = "-";
+                if (tree != null) {
+                    start = System.nanoTime();
+                    for (int q : queries) {
+                        if (tree.contains(q)) found++;
+                    }
+                    avl = String.format("%.0f", nanosPerQuery(start, queryCount));
+                    for (int q : queries) {
+                        if ((q & 1) == 0) found--;
+                    }
+                }
+
+                System.out.printf("%6dKB: Arrays.binarySearch %.0f ns, BinarySearch %.0f ns, Eytzinger %.0f ns, "
+                        + "batched %.0f ns, AVLTree %s ns (diff %d)%n",
+                        4L * n >> 10, arrays, util, single, batched, avl, found);
+            }
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package Algorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Learned index over a sorted int[] or long[], in the style of a PGM index.
+ * The distinct keys are covered by line segments, each predicting the
+ * position of a key to within EPSILON. The first keys of those segments are
+ * covered the same way one level up, and so on until a single segment is
+ * left. A lookup walks down the levels, and at each one it searches only a
+ * window of 2 * EPSILON + 2 slots around the prediction. When the keys are
+ * so irregular that the segments average fewer than 2 * EPSILON keys each,
+ * the model would cost more than it saves. The index then keeps no segments
+ * and answers with interpolation search.
+ *
+ * The index reads the array it was built over, which must not change.
+ */
+public class LearnedIndex {
+
+    public static final int EPSILON = 32;
+
+    private final int[] ints;
+    private final long[] longs;
+    private final int n;
+    private final int epsilon;
+
+    // Level 0 models the keys, level i + 1 models the first keys of level i.
+    // intercept has an extra slot holding the size of the level below.
+    private final long[][] firstKey;
+    private final double[][] slope;
+    private final int[][] intercept;
+
+    public LearnedIndex(int[] sorted) {
+        this(sorted, EPSILON);
+    }
+
+    public LearnedIndex(int[] sorted, int epsilon) {
+        this(sorted, null, sorted.length, epsilon);
+    }
+
+    public LearnedIndex(long[] sorted) {
+        this(sorted, EPSILON);
+    }
+
+    public LearnedIndex(long[] sorted, int epsilon) {
+        this(null, sorted, sorted.length, epsilon);
+    }
+
+    private LearnedIndex(int[] ints, long[] longs, int n, int epsilon) {
+        if(epsilon < 1) {
+            throw new IllegalArgumentException("epsilon must be positive: " + epsilon);
+        }
+        this.ints = ints;
+        this.longs = longs;
+        this.n = n;
+        this.epsilon = epsilon;
+
+        // The points of level 0 are (key, index of its first copy).
+        long[] keys = new long[n];
+        int[] positions = new int[n];
+        int distinct = 0;
+        for(int i = 0; i < n; i++) {
+            long key = key(i);
+            if(distinct == 0 || key != keys[distinct - 1]) {
+                keys[distinct] = key;
+                positions[distinct++] = i;
+            }
+        }
+
+        long[][] firstKey = new long[8][];
+        double[][] slope = new double[8][];
+        int[][] intercept = new int[8][];
+        int levels = 0;
+        int size = n;
+        while(distinct > 0) {
+            if(levels == firstKey.length) {
+                firstKey = Arrays.copyOf(firstKey, levels * 2);
+                slope = Arrays.copyOf(slope, levels * 2);
+                intercept = Arrays.copyOf(intercept, levels * 2);
+            }
+            int segments = fit(keys, positions, distinct, size, levels, firstKey, slope, intercept);
+            if(levels == 0 && (long) segments * 2 * epsilon > n) {
+                levels = 0;
+                break;
+            }
+            levels++;
+            if(segments == 1) {
+                break;
+            }
+            keys = firstKey[levels - 1];
+            positions = new int[segments];
+            for(int s = 0; s < segments; s++) {
+                positions[s] = s;
+            }
+            distinct = segments;
+            size = segments;
+        }
+        this.firstKey = Arrays.copyOf(firstKey, levels);
+        this.slope = Arrays.copyOf(slope, levels);
+        this.intercept = Arrays.copyOf(intercept, levels);
+    }
+
+    /**
+     * Covers the points (keys[i], positions[i]) with shrinking cones: a
+     * segment starts at a point and keeps the range of slopes that put every
+     * later point within epsilon of its position. When the range becomes
+     * empty, the point that emptied it starts the next segment. Returns the
+     * number of segments.
+     */
+    private int fit(long[] keys, int[] positions, int count, int size, int level,
+                    long[][] firstKey, double[][] slope, int[][] intercept) {
+        long[] starts = new long[count];
+        double[] slopes = new double[count];
+        int[] intercepts = new int[count + 1];
+        int segments = 0;
+        int i = 0;
+        while(i < count) {
+            double x0 = keys[i];
+            int y0 = positions[i];
+            double low = 0, high = Double.POSITIVE_INFINITY;
+            int j = i + 1;
+            for(; j < count; j++) {
+                double dx = keys[j] - x0;
+                double lo = Math.max(low, (positions[j] - epsilon - y0) / dx);
+                double hi = Math.min(high, (positions[j] + epsilon - y0) / dx);
+                if(lo > hi) break;
+                low = lo;
+                high = hi;
+            }
+            starts[segments] = keys[i];
+            slopes[segments] = high == Double.POSITIVE_INFINITY ? 0 : (low + high) / 2;
+            intercepts[segments++] = y0;
+            i = j;
+        }
+        intercepts[segments] = size;
+        firstKey[level] = Arrays.copyOf(starts, segments);
+        slope[level] = Arrays.copyOf(slopes, segments);
+        intercept[level] = Arrays.copyOf(intercepts, segments + 1);
+        return segments;
+    }
+
+    private long key(int i) {
+        return ints != null ? ints[i] : longs[i];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // Whether lookups go through the model rather than interpolation search.
+    public boolean isLearned() {
+        return firstKey.length > 0;
+    }
+
+    public int levels() {
+        return firstKey.length;
+    }
+
+    public int segments() {
+        return isLearned() ? firstKey[0].length : 0;
+    }
+
+    // Bytes held by the index, not counting the keys themselves.
+    public long sizeInBytes() {
+        long bytes = 0;
+        for(long[] level : firstKey) {
+            bytes += 8L * level.length + 8L * level.length + 4L * (level.length + 1);
+        }
+        return bytes;
+    }
+
+    public boolean contains(long key) {
+        int i = lowerBound(key);
+        return i < n && key(i) == key;
+    }
+
+    // Index of the first key >= key, or size() if there is none.
+    public int lowerBound(long key) {
+        if(!isLearned()) {
+            return interpolationSearch(key);
+        }
+        int segment = 0;
+        for(int level = firstKey.length - 1; level > 0; level--) {
+            long[] below = firstKey[level - 1];
+            int i = window(below, key, predict(level, segment, key));
+            // The segment holding key is the last one starting at or before it.
+            segment = i < below.length && below[i] == key ? i : Math.max(0, i - 1);
+        }
+        return window(null, key, predict(0, segment, key));
+    }
+
+    // Where the segment expects key, clamped to the positions it covers.
+    private int predict(int level, int segment, long key) {
+        int start = intercept[level][segment];
+        double guess = start + slope[level][segment] * ((double) key - firstKey[level][segment]);
+        return (int) Math.max(start, Math.min(intercept[level][segment + 1], guess));
+    }
+
+    /**
+     * lowerBound of key in keys (or in the indexed array when keys is null),
+     * expected within epsilon of guess. If the window turns out to miss, it
+     * gallops outward. That only happens around long runs of duplicates, or
+     * for long keys too large for a double to hold exactly.
+     */
+    private int window(long[] keys, long key, int guess) {
+        int size = keys == null ? n : keys.length;
+        // The answer r has key(r - 1) < key <= key(r), and lies in [low, high].
+        int low = Math.max(0, guess - epsilon);
+        int high = Math.min(size, guess + epsilon + 1);
+        for(int step = 2 * epsilon; low > 0 && at(keys, low - 1) >= key; step *= 2) {
+            high = low - 1;
+            low = Math.max(0, high - step);
+        }
+        for(int step = 2 * epsilon; high < size && at(keys, high) < key; step *= 2) {
+            low = high + 1;
+            high = (int) Math.min(size, (long) low + step);
+        }
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(at(keys, mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long at(long[] keys, int i) {
+        return keys != null ? keys[i] : key(i);
+    }
+
+    /**
+     * lowerBound by interpolation: probe where key would sit if the keys in
+     * the range were evenly spaced. Any probe that fails to halve the range
+     * is followed by a bisection, so skewed keys cost at most twice binary
+     * search.
+     */
+    private int interpolationSearch(long key) {
+        int low = 0, high = n;
+        while(high - low > 8) {
+            long first = key(low), last = key(high - 1);
+            if(key <= first) return low;
+            if(key > last) return high;
+            int size = high - low;
+            int probe = low + (int) (((double) key - first) / ((double) last - first) * (size - 1));
+            probe = Math.max(low, Math.min(high - 1, probe));
+            if(key(probe) < key) {
+                low = probe + 1;
+            } else {
+                high = probe;
+            }
+            if(high - low > size / 2) {
+                int mid = (low + high) >>> 1;
+                if(key(mid) < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+        }
+        while(low < high && key(low) < key) {
+            low++;
+        }
+        return low;
+    }
+
+    private static int[] uniform(int n, Random random) {
+        int[] keys = new int[n];
+        for(int i = 0; i < n; i++) {
+            keys[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static int[] lognormal(int n, Random random) {
+        int[] keys = new int[n];
+        for(int i = 0; i < n; i++) {
+            keys[i] = (int) Math.min(Integer.MAX_VALUE, Math.exp(10 + 2 * random.nextGaussian()));
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    // A thousand dense runs scattered over the whole int range.
+    private static int[] clustered(int n, Random random) {
+        int[] keys = new int[n];
+        int clusters = 1000;
+        for(int i = 0; i < n; i++) {
+            int centre = (int) ((long) (i % clusters) * (Integer.MAX_VALUE / clusters));
+            keys[i] = centre + random.nextInt(4 * n / clusters);
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static double nanosPerQuery(long start, int queries) {
+        return (double) (System.nanoTime() - start) / queries;
+    }
+
+    public static void main(String[] args) {
+        int[] small = {2, 3, 3, 3, 8, 13, 21, 34};
+        // Too few keys for the model to pay off, so this one uses interpolation search.
+        LearnedIndex demo = new LearnedIndex(small);
+        System.out.println(demo.isLearned() + " " + demo.lowerBound(3) + " " + demo.lowerBound(9) + " " + demo.contains(21) + " " + demo.contains(22));
+
+        int n = 1 << 24;
+        int queryCount = 1 << 22;
+        Random random = new Random(23);
+        String[] names = {"uniform", "lognormal", "clustered"};
+        for(int d = 0; d < names.length; d++) {
+            int[] keys = d == 0 ? uniform(n, random) : d == 1 ? lognormal(n, random) : clustered(n, random);
+            // Half the queries are keys from the array, half are arbitrary values in its range.
+            int[] queries = new int[queryCount];
+            for(int i = 0; i < queryCount; i++) {
+                queries[i] = (i & 1) == 0 ? keys[random.nextInt(n)]
+                        : keys[0] + (int) (random.nextDouble() * ((double) keys[n - 1] - keys[0]));
+            }
+
+            long start = System.nanoTime();
+            LearnedIndex index = new LearnedIndex(keys);
+            double build = (System.nanoTime() - start) / 1e6;
+            System.out.printf("%s: %d keys, %d levels, %d segments, index %dKB for %dMB of keys, built in %.0f ms%n",
+                    names[d], n, index.levels(), index.segments(), index.sizeInBytes() >> 10, 4L * n >> 20, build);
+
+            for(int round = 0; round < 2; round++) {
+                long diff = 0;
+                int found = 0;
+                start = System.nanoTime();
+                for(int q : queries) {
+                    diff += index.lowerBound(q);
+                }
+                double learned = nanosPerQuery(start, queryCount);
+
+                start = System.nanoTime();
+                for(int q : queries) {
+                    diff -= BinarySearch.lowerBound(keys, q);
+                }
+                double binary = nanosPerQuery(start, queryCount);
+
+                start = System.nanoTime();
+                for(int q : queries) {
+                    if(Arrays.binarySearch(keys, q) >= 0) found++;
+                }
+                double arrays = nanosPerQuery(start, queryCount);
+
+                System.out.printf("  learned %.0f ns, BinarySearch.lowerBound %.0f ns, Arrays.binarySearch %.0f ns "
+                        + "(diff %d, %d found)%n", learned, binary, arrays, diff, found);
+            }
+        }
+    }
+}
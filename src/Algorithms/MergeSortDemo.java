@@ -1,10 +1,28 @@
 package Algorithms;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Created by Naren on 5/22/17.
+ *
+ * MergeSort is the textbook version. parallelMergeSort sorts on the common
+ * fork/join pool and differs from it in these ways:
+ * - Input that is already sorted is detected in one pass and left alone.
+ * - Ranges of up to INSERTION_CUTOFF elements are insertion sorted.
+ * - Each level merges from one buffer into the other, so nothing is copied back.
+ * - Halves that are already in order are copied instead of merged.
+ * - The scratch buffer can be supplied by the caller and reused across sorts.
+ * Large merges are split in two and run in parallel too, so the last merge
+ * does not leave the other workers idle.
  */
 public class MergeSortDemo {
 
+  private static final int INSERTION_CUTOFF = 32;
+  // Ranges below this are sorted, and runs below this merged, on a single worker.
+  private static final int PARALLEL_GRAIN = 1 << 13;
 
   public static void MergeSort(int[] nums) {
     int leftStart = 0;
@@ -46,4 +64,227 @@ public class MergeSortDemo {
     System.arraycopy(nums, right, temp, index, rightEnd - right + 1);
     System.arraycopy(temp, leftStart, nums, leftStart, size);
   }
+
+  public static void parallelMergeSort(int[] nums) {
+    parallelMergeSort(nums, new int[nums.length]);
+  }
+
+  // scratch must be at least as long as nums; its contents are overwritten.
+  public static void parallelMergeSort(int[] nums, int[] scratch) {
+    if(scratch.length < nums.length) {
+      throw new IllegalArgumentException("scratch holds " + scratch.length + " ints, need " + nums.length);
+    }
+    // The ordered-halves check still copies every level between the buffers, so catch sorted input up front.
+    if(isSorted(nums)) return;
+    if(nums.length <= PARALLEL_GRAIN) {
+      sort(nums, scratch, 0, nums.length, false);
+    } else {
+      ForkJoinPool.commonPool().invoke(new SortTask(nums, scratch, 0, nums.length, false));
+    }
+  }
+
+  /**
+   * Sorts nums[from, to), leaving the result in scratch when intoScratch is
+   * set and in nums otherwise. Each half is sorted into the buffer the
+   * merge reads from, so the levels alternate between the two buffers.
+   */
+  private static void sort(int[] nums, int[] scratch, int from, int to, boolean intoScratch) {
+    if(to - from <= INSERTION_CUTOFF) {
+      int[] out = nums;
+      if(intoScratch) {
+        System.arraycopy(nums, from, scratch, from, to - from);
+        out = scratch;
+      }
+      insertionSort(out, from, to);
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    sort(nums, scratch, from, mid, !intoScratch);
+    sort(nums, scratch, mid, to, !intoScratch);
+    if(intoScratch) {
+      mergeInto(nums, from, mid, to, scratch);
+    } else {
+      mergeInto(scratch, from, mid, to, nums);
+    }
+  }
+
+  private static boolean isSorted(int[] nums) {
+    for(int i = 1; i < nums.length; i++) {
+      if(nums[i - 1] > nums[i]) return false;
+    }
+    return true;
+  }
+
+  private static void insertionSort(int[] nums, int from, int to) {
+    for(int i = from + 1; i < to; i++) {
+      int value = nums[i];
+      int j = i - 1;
+      while(j >= from && nums[j] > value) {
+        nums[j + 1] = nums[j];
+        j--;
+      }
+      nums[j + 1] = value;
+    }
+  }
+
+  // Merges the sorted runs src[from, mid) and src[mid, to) into dst[from, to).
+  private static void mergeInto(int[] src, int from, int mid, int to, int[] dst) {
+    if(src[mid - 1] <= src[mid]) {
+      System.arraycopy(src, from, dst, from, to - from);
+      return;
+    }
+    merge(src, from, mid, mid, to, dst, from);
+  }
+
+  // Merges src[left, leftEnd) and src[right, rightEnd) into dst starting at index.
+  private static void merge(int[] src, int left, int leftEnd, int right, int rightEnd, int[] dst, int index) {
+    while(left < leftEnd && right < rightEnd) {
+      // The indexes move by arithmetic, not a branch that random data would mispredict half the time.
+      int a = src[left], b = src[right];
+      int takeRight = (int) (((long) b - a) >>> 63);
+      dst[index++] = Math.min(a, b);
+      left += 1 - takeRight;
+      right += takeRight;
+    }
+    System.arraycopy(src, left, dst, index, leftEnd - left);
+    System.arraycopy(src, right, dst, index + leftEnd - left, rightEnd - right);
+  }
+
+  // First index in [from, to) of src whose value is >= key.
+  private static int lowerBound(int[] src, int from, int to, int key) {
+    while(from < to) {
+      int mid = (from + to) >>> 1;
+      if(src[mid] < key) {
+        from = mid + 1;
+      } else {
+        to = mid;
+      }
+    }
+    return from;
+  }
+
+  private static final class SortTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final int[] nums, scratch;
+    private final int from, to;
+    private final boolean intoScratch;
+
+    SortTask(int[] nums, int[] scratch, int from, int to, boolean intoScratch) {
+      this.nums = nums;
+      this.scratch = scratch;
+      this.from = from;
+      this.to = to;
+      this.intoScratch = intoScratch;
+    }
+
+    @Override
+    protected void compute() {
+      if(to - from <= PARALLEL_GRAIN) {
+        sort(nums, scratch, from, to, intoScratch);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      SortTask left = new SortTask(nums, scratch, from, mid, !intoScratch);
+      left.fork();
+      new SortTask(nums, scratch, mid, to, !intoScratch).compute();
+      left.join();
+      int[] src = intoScratch ? nums : scratch;
+      int[] dst = intoScratch ? scratch : nums;
+      if(src[mid - 1] <= src[mid]) {
+        System.arraycopy(src, from, dst, from, to - from);
+      } else {
+        new MergeTask(src, from, mid, mid, to, dst, from).compute();
+      }
+    }
+  }
+
+  /**
+   * Splits a large merge at the middle of the longer run and the matching
+   * position in the other run. The two lower parts and the two upper parts
+   * are then merged as separate tasks.
+   */
+  private static final class MergeTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final int[] src, dst;
+    private final int left, leftEnd, right, rightEnd, index;
+
+    MergeTask(int[] src, int left, int leftEnd, int right, int rightEnd, int[] dst, int index) {
+      this.src = src;
+      this.left = left;
+      this.leftEnd = leftEnd;
+      this.right = right;
+      this.rightEnd = rightEnd;
+      this.dst = dst;
+      this.index = index;
+    }
+
+    @Override
+    protected void compute() {
+      int leftSize = leftEnd - left, rightSize = rightEnd - right;
+      if(leftSize + rightSize <= PARALLEL_GRAIN) {
+        merge(src, left, leftEnd, right, rightEnd, dst, index);
+        return;
+      }
+      // Everything below the split values is <= them and everything above is >=.
+      int leftSplit, rightSplit;
+      if(leftSize >= rightSize) {
+        leftSplit = (left + leftEnd) >>> 1;
+        rightSplit = lowerBound(src, right, rightEnd, src[leftSplit]);
+      } else {
+        rightSplit = (right + rightEnd) >>> 1;
+        leftSplit = lowerBound(src, left, leftEnd, src[rightSplit]);
+      }
+      MergeTask lower = new MergeTask(src, left, leftSplit, right, rightSplit, dst, index);
+      lower.fork();
+      new MergeTask(src, leftSplit, leftEnd, rightSplit, rightEnd, dst,
+          index + (leftSplit - left) + (rightSplit - right)).compute();
+      lower.join();
+    }
+  }
+
+  private static double millis(long start) {
+    return (System.nanoTime() - start) / 1e6;
+  }
+
+  public static void main(String[] args) {
+    int[] small = {5, 3, 9, 1, 5, 7, 2};
+    parallelMergeSort(small);
+    System.out.println(Arrays.toString(small));
+
+    int n = 1 << 24;
+    Random random = new Random(24);
+    String[] names = {"random", "sorted", "many duplicates"};
+    int[][] inputs = new int[3][n];
+    for(int i = 0; i < n; i++) {
+      inputs[0][i] = random.nextInt();
+      inputs[1][i] = i;
+      inputs[2][i] = random.nextInt(16);
+    }
+
+    int[] nums = new int[n];
+    int[] scratch = new int[n];
+    System.out.println(n + " ints, " + ForkJoinPool.getCommonPoolParallelism() + " fork/join workers");
+    for(int d = 0; d < inputs.length; d++) {
+      for(int round = 0; round < 3; round++) {
+        System.arraycopy(inputs[d], 0, nums, 0, n);
+        long start = System.nanoTime();
+        MergeSort(nums);
+        double textbook = millis(start);
+
+        System.arraycopy(inputs[d], 0, nums, 0, n);
+        start = System.nanoTime();
+        parallelMergeSort(nums, scratch);
+        double parallel = millis(start);
+        int[] mine = nums.clone();
+
+        System.arraycopy(inputs[d], 0, nums, 0, n);
+        start = System.nanoTime();
+        Arrays.parallelSort(nums);
+        double jdk = millis(start);
+
+        System.out.printf("%s: MergeSort %.0f ms, parallelMergeSort %.0f ms, Arrays.parallelSort %.0f ms (%s)%n",
+            names[d], textbook, parallel, jdk, Arrays.equals(mine, nums) ? "same" : "DIFFERENT");
+      }
+    }
+  }
 }
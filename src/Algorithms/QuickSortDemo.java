@@ -1,12 +1,32 @@
 package Algorithms;
 
 import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Created by Naren on 5/22/17.
+ *
+ * quickSort is the textbook version. Its pivot is always the middle element,
+ * so patterned input can make it quadratic and recurse n levels deep.
+ *
+ * introSort makes three changes to avoid that:
+ * - The pivot is the median of three elements, or of nine for larger ranges.
+ * - The smaller side is sorted recursively and the larger side in the loop,
+ *   so the stack stays O(log n) deep.
+ * - After 2 * log2(n) partitions a range is heapsorted, which bounds the
+ *   worst case at O(n log n).
+ *
+ * parallelSort partitions large ranges around two pivots on the common
+ * fork/join pool and hands ranges below PARALLEL_GRAIN to introSort.
  */
 public class QuickSortDemo {
 
+  private static final int INSERTION_CUTOFF = 16;
+  private static final int NINTHER_CUTOFF = 128;
+  private static final int PARALLEL_GRAIN = 1 << 13;
+
   public static void quickSort(int[] arr) {
     int left = 0;
     int right = arr.length - 1;
@@ -52,6 +72,185 @@ public class QuickSortDemo {
     arr[right] = temp;
   }
 
+  public static void introSort(int[] arr) {
+    introSort(arr, 0, arr.length - 1, depthLimit(arr.length));
+  }
+
+  private static int depthLimit(int n) {
+    return 2 * (32 - Integer.numberOfLeadingZeros(n));
+  }
+
+  private static void introSort(int[] arr, int left, int right, int depth) {
+    while(right - left > INSERTION_CUTOFF) {
+      if(depth-- == 0) {
+        heapSort(arr, left, right);
+        return;
+      }
+      int pIndex = partition(arr, left, right, arr[pivotIndex(arr, left, right)]);
+      if(pIndex - left < right - pIndex) {
+        introSort(arr, left, pIndex - 1, depth);
+        left = pIndex;
+      } else {
+        introSort(arr, pIndex, right, depth);
+        right = pIndex - 1;
+      }
+    }
+    insertionSort(arr, left, right);
+  }
+
+  // Median of three, or above NINTHER_CUTOFF Tukey's ninther: the median of three medians of three.
+  private static int pivotIndex(int[] arr, int left, int right) {
+    int mid = (left + right) >>> 1;
+    if(right - left < NINTHER_CUTOFF) {
+      return median(arr, left, mid, right);
+    }
+    int step = (right - left) / 8;
+    return median(arr,
+        median(arr, left, left + step, left + 2 * step),
+        median(arr, mid - step, mid, mid + step),
+        median(arr, right - 2 * step, right - step, right));
+  }
+
+  private static int median(int[] arr, int a, int b, int c) {
+    if(arr[a] < arr[b]) {
+      return arr[b] < arr[c] ? b : arr[a] < arr[c] ? c : a;
+    }
+    return arr[a] < arr[c] ? a : arr[b] < arr[c] ? c : b;
+  }
+
+  private static void insertionSort(int[] arr, int left, int right) {
+    for(int i = left + 1; i <= right; i++) {
+      int value = arr[i];
+      int j = i - 1;
+      while(j >= left && arr[j] > value) {
+        arr[j + 1] = arr[j];
+        j--;
+      }
+      arr[j + 1] = value;
+    }
+  }
+
+  private static void heapSort(int[] arr, int left, int right) {
+    int n = right - left + 1;
+    for(int i = n / 2 - 1; i >= 0; i--) {
+      siftDown(arr, left, i, n);
+    }
+    for(int end = n - 1; end > 0; end--) {
+      swap(arr, left, left + end);
+      siftDown(arr, left, 0, end);
+    }
+  }
+
+  // Max-heap of size n stored at arr[base ..]; moves the value at heap index i down into place.
+  private static void siftDown(int[] arr, int base, int i, int n) {
+    int value = arr[base + i];
+    while(2 * i + 1 < n) {
+      int child = 2 * i + 1;
+      if(child + 1 < n && arr[base + child + 1] > arr[base + child]) child++;
+      if(arr[base + child] <= value) break;
+      arr[base + i] = arr[base + child];
+      i = child;
+    }
+    arr[base + i] = value;
+  }
+
+  public static void parallelSort(int[] arr) {
+    if(arr.length <= PARALLEL_GRAIN) {
+      introSort(arr);
+    } else {
+      ForkJoinPool.commonPool().invoke(new DualPivotTask(arr, 0, arr.length - 1, depthLimit(arr.length)));
+    }
+  }
+
+  /**
+   * Splits arr[left, right] around two pivots p1 <= p2 into the parts below
+   * p1, between them and above p2, and sorts the three parts as separate
+   * tasks. The pivots are the second and fourth of five evenly spaced
+   * samples. When they are equal, the middle part is all copies of one
+   * value and is already sorted. Like introSort, a range that exhausts its
+   * depth is heapsorted.
+   */
+  private static final class DualPivotTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final int[] arr;
+    private final int left, right, depth;
+
+    DualPivotTask(int[] arr, int left, int right, int depth) {
+      this.arr = arr;
+      this.left = left;
+      this.right = right;
+      this.depth = depth;
+    }
+
+    @Override
+    protected void compute() {
+      if(right - left < PARALLEL_GRAIN) {
+        introSort(arr, left, right, depth);
+        return;
+      }
+      if(depth == 0) {
+        heapSort(arr, left, right);
+        return;
+      }
+      int step = (right - left) / 6;
+      int[] samples = {left + step, left + 2 * step, left + 3 * step, left + 4 * step, left + 5 * step};
+      sortSamples(samples);
+      swap(arr, left, samples[1]);
+      swap(arr, right, samples[3]);
+      int p1 = arr[left], p2 = arr[right];
+
+      // arr[left + 1, lt) < p1, arr[lt, k) in [p1, p2], arr(gt, right - 1] > p2.
+      int lt = left + 1, gt = right - 1;
+      for(int k = lt; k <= gt; k++) {
+        if(arr[k] < p1) {
+          swap(arr, k, lt++);
+        } else if(arr[k] > p2) {
+          while(arr[gt] > p2 && k < gt) gt--;
+          swap(arr, k, gt--);
+          if(arr[k] < p1) swap(arr, k, lt++);
+        }
+      }
+      swap(arr, left, --lt);
+      swap(arr, right, ++gt);
+
+      DualPivotTask lower = new DualPivotTask(arr, left, lt - 1, depth - 1);
+      DualPivotTask upper = new DualPivotTask(arr, gt + 1, right, depth - 1);
+      if(p1 < p2) {
+        DualPivotTask middle = new DualPivotTask(arr, lt + 1, gt - 1, depth - 1);
+        invokeAll(lower, middle, upper);
+      } else {
+        invokeAll(lower, upper);
+      }
+    }
+
+    // Orders the five sample positions by their values, moving the values between them.
+    private void sortSamples(int[] samples) {
+      for(int i = 1; i < samples.length; i++) {
+        for(int j = i; j > 0 && arr[samples[j - 1]] > arr[samples[j]]; j--) {
+          swap(arr, samples[j - 1], samples[j]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Musser's median-of-3 killer: with first, middle and last as the
+   * candidates, every partition splits off only two elements.
+   */
+  private static int[] medianOfThreeKiller(int n) {
+    int k = n / 2;
+    int[] arr = new int[n];
+    for(int i = 1; i <= k; i++) {
+      arr[i - 1] = (i & 1) == 1 ? i : k + i - 1;
+      arr[k + i - 1] = 2 * i;
+    }
+    return arr;
+  }
+
+  private static double millis(long start) {
+    return (System.nanoTime() - start) / 1e6;
+  }
+
   public static void main(String[] args) {
 
     int[] arr = {6,3,2,6,8,31,3,62,1,1,8};
@@ -60,5 +259,58 @@ public class QuickSortDemo {
 
     System.out.println(Arrays.toString(arr));
 
+    int n = 1 << 24;
+    Random random = new Random(25);
+    String[] names = {"random", "sorted", "reversed", "organ pipe", "many duplicates", "median-of-3 killer"};
+    int[][] inputs = new int[names.length][];
+    inputs[0] = random.ints(n).toArray();
+    inputs[1] = new int[n];
+    inputs[2] = new int[n];
+    inputs[3] = new int[n];
+    inputs[4] = new int[n];
+    for(int i = 0; i < n; i++) {
+      inputs[1][i] = i;
+      inputs[2][i] = n - i;
+      inputs[3][i] = Math.min(i, n - i);
+      inputs[4][i] = random.nextInt(16);
+    }
+    inputs[5] = medianOfThreeKiller(n);
+
+    int[] nums = new int[n];
+    System.out.println(n + " ints, " + ForkJoinPool.getCommonPoolParallelism() + " fork/join workers");
+    for(int d = 0; d < names.length; d++) {
+      for(int round = 0; round < 2; round++) {
+        System.arraycopy(inputs[d], 0, nums, 0, n);
+        long start = System.nanoTime();
+        String textbook;
+        try {
+          quickSort(nums);
+          textbook = String.format("%.0f ms", millis(start));
+        } catch(StackOverflowError e) {
+          textbook = "stack overflow";
+        }
+
+        System.arraycopy(inputs[d], 0, nums, 0, n);
+        start = System.nanoTime();
+        introSort(nums);
+        double intro = millis(start);
+        int[] expected = nums.clone();
+
+        System.arraycopy(inputs[d], 0, nums, 0, n);
+        start = System.nanoTime();
+        parallelSort(nums);
+        double parallel = millis(start);
+        boolean same = Arrays.equals(expected, nums);
+
+        System.arraycopy(inputs[d], 0, nums, 0, n);
+        start = System.nanoTime();
+        Arrays.parallelSort(nums);
+        double jdk = millis(start);
+        same &= Arrays.equals(expected, nums);
+
+        System.out.printf("%s: quickSort %s, introSort %.0f ms, parallelSort %.0f ms, Arrays.parallelSort %.0f ms (%s)%n",
+            names[d], textbook, intro, parallel, jdk, same ? "same" : "DIFFERENT");
+      }
+    }
   }
 }
@@ -1,18 +1,208 @@
 package Algorithms;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
 /**
  * Created by Naren on 5/19/17.
+ *
+ * Linear scans over an unsorted int[]: find-first, find-all, count-equal and
+ * count-in-range. The inner loops test each element with plain arithmetic
+ * instead of a branch, so the JIT can compare many lanes per instruction.
+ * Arrays longer than CHUNK are cut into chunks and scanned on a fork/join
+ * pool. Find-first publishes the lowest hit so far, and workers skip chunks
+ * that start after it.
  */
 public class SequentialSort {
 
-    private int search(int[] arr, int target) {
+    // Elements per fork/join leaf (256KB).
+    private static final int CHUNK = 1 << 16;
+    // Elements scanned between checks of the shared find-first result.
+    private static final int BLOCK = 1 << 8;
+
+    private final ForkJoinPool pool;
+
+    public SequentialSort() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SequentialSort(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Index of the first element equal to target, or -1.
+    public int search(int[] arr, int target) {
 
         if(arr == null) return -1;
 
-        for(int i =0; i< arr.length; i++) {
-            if(arr[i] == target) return i;
+        if(arr.length <= CHUNK) {
+            int i = firstEqual(arr, 0, arr.length, target, null);
+            return i < arr.length ? i : -1;
+        }
+
+        AtomicInteger first = new AtomicInteger(arr.length);
+        forEachChunk(arr.length, c -> {
+            int from = c * CHUNK;
+            if(from >= first.get()) return;
+            int end = end(arr, c);
+            int i = firstEqual(arr, from, end, target, first);
+            if(i < end) first.accumulateAndGet(i, Math::min);
+        });
+        int i = first.get();
+        return i < arr.length ? i : -1;
+    }
+
+    // Indexes of all elements equal to target, in ascending order.
+    public int[] findAll(int[] arr, int target) {
+        if(arr == null) return new int[0];
+
+        int chunks = chunks(arr.length);
+        int[] offsets = new int[chunks + 1];
+        forEachChunk(arr.length, c -> offsets[c + 1] = countEqual(arr, c * CHUNK, end(arr, c), target));
+        for(int c = 0; c < chunks; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+
+        int[] result = new int[offsets[chunks]];
+        forEachChunk(arr.length, c -> {
+            int k = offsets[c];
+            // Branch-free: write every index and only advance past the matches.
+            for(int i = c * CHUNK, end = end(arr, c); i < end && k < offsets[c + 1]; i++) {
+                result[k] = i;
+                k += isZero(arr[i] ^ target);
+            }
+        });
+        return result;
+    }
+
+    public int count(int[] arr, int target) {
+        if(arr == null) return 0;
+
+        int[] counts = new int[chunks(arr.length)];
+        forEachChunk(arr.length, c -> counts[c] = countEqual(arr, c * CHUNK, end(arr, c), target));
+        return sum(counts);
+    }
+
+    // Number of elements x with low <= x <= high.
+    public int countInRange(int[] arr, int low, int high) {
+        if(arr == null || low > high) return 0;
+        // x is in range when x - low, read as unsigned, is below high - low + 1.
+        int span = high - low + 1;
+        if(span == 0) return arr.length;
+        int[] counts = new int[chunks(arr.length)];
+        forEachChunk(arr.length, c -> counts[c] = countBelow(arr, c * CHUNK, end(arr, c), low, span));
+        return sum(counts);
+    }
+
+    // 1 when x == 0, else 0: x | -x has its sign bit set for every other x.
+    private static int isZero(int x) {
+        return ((x | -x) >>> 31) ^ 1;
+    }
+
+    // 1 when x < y as unsigned ints: the borrow out of x - y (Hacker's Delight 2-13).
+    private static int belowUnsigned(int x, int y) {
+        return ((~x & y) | (~(x ^ y) & (x - y))) >>> 31;
+    }
+
+    private static int countEqual(int[] arr, int from, int to, int target) {
+        int count = 0;
+        for(int i = from; i < to; i++) {
+            count += isZero(arr[i] ^ target);
+        }
+        return count;
+    }
+
+    private static int countBelow(int[] arr, int from, int to, int low, int span) {
+        int count = 0;
+        for(int i = from; i < to; i++) {
+            count += belowUnsigned(arr[i] - low, span);
         }
-        return -1;
+        return count;
+    }
+
+    /**
+     * First index in [from, to) holding target, or to. Each block is reduced
+     * to a hit flag without branching, and only a block with a hit is scanned
+     * again to find the position. Between blocks it gives up once another
+     * worker has published an earlier hit.
+     */
+    private static int firstEqual(int[] arr, int from, int to, int target, AtomicInteger first) {
+        for(int block = from, end; block < to; block = end) {
+            end = block + Math.min(BLOCK, to - block);
+            int hit = 0;
+            for(int i = block; i < end; i++) {
+                hit |= isZero(arr[i] ^ target);
+            }
+            if(hit != 0) {
+                for(int i = block; ; i++) {
+                    if(arr[i] == target) return i;
+                }
+            }
+            if(first != null && first.get() < end) return to;
+        }
+        return to;
+    }
+
+    private static int chunks(int length) {
+        return (int) (((long) length + CHUNK - 1) / CHUNK);
+    }
+
+    private static int end(int[] arr, int chunk) {
+        int from = chunk * CHUNK;
+        return from + Math.min(CHUNK, arr.length - from);
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for(int c : counts) total += c;
+        return total;
+    }
+
+    // Runs body for every chunk, on the pool when there is more than one.
+    private void forEachChunk(int length, IntConsumer body) {
+        int chunks = chunks(length);
+        if(chunks <= 1) {
+            if(chunks == 1) body.accept(0);
+            return;
+        }
+        pool.invoke(new ChunkTask(0, chunks, body));
+    }
+
+    /**
+     * Splits a range of chunks in half, forks the upper half and keeps the
+     * lower one, so a single worker visits chunks in ascending order.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from, to;
+        private final IntConsumer body;
+
+        ChunkTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1) {
+                body.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask upper = new ChunkTask(mid, to, body);
+            upper.fork();
+            new ChunkTask(from, mid, body).compute();
+            upper.join();
+        }
+    }
+
+    private static double gbPerSecond(long start, int[] arr) {
+        return 4.0 * arr.length / (System.nanoTime() - start);
     }
 
     public static void main(String[] args) {
@@ -24,6 +214,51 @@ public class SequentialSort {
         System.out.println(sequentialSort.search(arr, 5));
         System.out.println(sequentialSort.search(arr, 10));
         System.out.println(sequentialSort.search(arr, 1));
+        System.out.println(Arrays.toString(sequentialSort.findAll(arr, 2)) + " " + sequentialSort.count(arr, 1)
+                + " " + sequentialSort.countInRange(arr, 2, 5));
+
+        // Scan throughput over a 512MB column at 1, 4 and all cores.
+        int n = 1 << 27;
+        int[] column = new int[n];
+        Random random = new Random(22);
+        for(int i = 0; i < n; i++) column[i] = random.nextInt(1 << 20);
+        // A single hit near the end, so find-first scans almost everything.
+        int needle = -1;
+        column[n - 100] = needle;
 
+        int cores = Runtime.getRuntime().availableProcessors();
+        for(int parallelism : new int[] {1, 4, cores}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            SequentialSort scan = new SequentialSort(pool);
+            for(int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                int first = scan.search(column, needle);
+                double find = gbPerSecond(start, column);
+
+                start = System.nanoTime();
+                int all = scan.findAll(column, 12345).length;
+                double findAll = gbPerSecond(start, column);
+
+                start = System.nanoTime();
+                int equal = scan.count(column, 12345);
+                double count = gbPerSecond(start, column);
+
+                start = System.nanoTime();
+                int inRange = scan.countInRange(column, 1000, 1 << 18);
+                double range = gbPerSecond(start, column);
+
+                start = System.nanoTime();
+                int scalar = -1;
+                for(int i = 0; i < n; i++) {
+                    if(column[i] == needle) { scalar = i; break; }
+                }
+                double loop = gbPerSecond(start, column);
+
+                System.out.printf("%d workers, %d cores: find-first %.2f GB/s, find-all %.2f GB/s, count %.2f GB/s, "
+                        + "count-in-range %.2f GB/s, scalar loop %.2f GB/s (%d %d %d %d %d)%n",
+                        parallelism, cores, find, findAll, count, range, loop, first, scalar, all, equal, inRange);
+            }
+            pool.shutdown();
+        }
     }
 }
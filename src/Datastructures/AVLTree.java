@@ -0,0 +1,703 @@
+package Datastructures;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * AVL tree implementation of {@link BST}. After every add and del the
+ * heights of a node's two subtrees differ by at most one, so the tree is
+ * never more than 1.44 log2(n + 2) high, whatever order the keys arrive in.
+ * add, del and search are loops. add and del record the path they walked
+ * and then go back up it, fixing heights and rotating where needed. Once
+ * a subtree comes out the same height as before, only the counts above it
+ * still change.
+ *
+ * Every node also counts the nodes in its subtree. That gives rank, select
+ * and rangeCount in O(log n), with no traversal.
+ *
+ * Bulk operations are built on join and split (Blelloch, Ferizovic and
+ * Sun, "Just Join for Parallel Ordered Sets"). union, intersection and
+ * difference split one tree around the other's root, recurse on the two
+ * halves, and join the results. That costs O(m log(n / m + 1)) for sizes
+ * m <= n. The two halves are independent, so large ones run as fork/join
+ * tasks. These operations reuse the nodes of their arguments, which are
+ * left empty.
+ */
+public class AVLTree implements BST {
+
+    // Enough for any tree that fits in memory: 64 levels would need over 2^44 nodes.
+    private static final int MAX_HEIGHT = 64;
+    // Set operations on fewer nodes than this run on the current thread.
+    private static final int GRAIN = 1 << 13;
+    private static final int UNION = 0, INTERSECTION = 1, DIFFERENCE = 2;
+
+    private TreeNode root;
+    private final TreeNode[] path = new TreeNode[MAX_HEIGHT];
+
+    TreeNode root() {
+        return root;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public int height() {
+        return height(root);
+    }
+
+    @Override
+    public void add(int val) {
+        int depth = 0;
+        TreeNode node = root;
+        while (node != null) {
+            if (val == node.val) {
+                return;
+            }
+            path[depth++] = node;
+            node = val < node.val ? node.left : node.right;
+        }
+
+        TreeNode leaf = new TreeNode(val);
+        if (depth == 0) {
+            root = leaf;
+        } else if (val < path[depth - 1].val) {
+            path[depth - 1].left = leaf;
+        } else {
+            path[depth - 1].right = leaf;
+        }
+        rebalance(depth);
+    }
+
+    @Override
+    public void del(int val) {
+        int depth = 0;
+        TreeNode node = root;
+        while (node != null && node.val != val) {
+            path[depth++] = node;
+            node = val < node.val ? node.left : node.right;
+        }
+        if (node == null) {
+            return;
+        }
+
+        if (node.left != null && node.right != null) {
+            // Copy the inorder successor's value here and unlink the successor instead.
+            path[depth++] = node;
+            TreeNode successor = node.right;
+            while (successor.left != null) {
+                path[depth++] = successor;
+                successor = successor.left;
+            }
+            node.val = successor.val;
+            node = successor;
+        }
+
+        TreeNode child = node.left != null ? node.left : node.right;
+        if (depth == 0) {
+            root = child;
+        } else if (path[depth - 1].left == node) {
+            path[depth - 1].left = child;
+        } else {
+            path[depth - 1].right = child;
+        }
+        rebalance(depth);
+    }
+
+    // Fixes path[depth - 1] up to the root, relinking any subtree whose top changed.
+    private void rebalance(int depth) {
+        int d = depth - 1;
+        for (; d >= 0; d--) {
+            TreeNode node = path[d];
+            int oldHeight = node.height;
+            TreeNode top = balance(node);
+            if (top == node && node.height == oldHeight) {
+                break;
+            }
+            if (d == 0) {
+                root = top;
+            } else if (path[d - 1].left == node) {
+                path[d - 1].left = top;
+            } else {
+                path[d - 1].right = top;
+            }
+        }
+        // The heights above are unchanged, but every ancestor still gained or lost a node.
+        for (; d >= 0; d--) {
+            update(path[d]);
+        }
+    }
+
+    private static TreeNode balance(TreeNode node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static TreeNode rotateRight(TreeNode node) {
+        TreeNode left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static TreeNode rotateLeft(TreeNode node) {
+        TreeNode right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(TreeNode node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int height(TreeNode node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(TreeNode node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // Number of keys less than key.
+    public int rank(int key) {
+        return countBelow(key, false);
+    }
+
+    // The k-th smallest key, counting from 0.
+    public int select(int k) {
+        if (k < 0 || k >= size()) {
+            throw new IndexOutOfBoundsException("k: " + k + ", size: " + size());
+        }
+        TreeNode node = root;
+        while (true) {
+            int left = size(node.left);
+            if (k < left) {
+                node = node.left;
+            } else if (k > left) {
+                k -= left + 1;
+                node = node.right;
+            } else {
+                return node.val;
+            }
+        }
+    }
+
+    // Number of keys in [lo, hi].
+    public int rangeCount(int lo, int hi) {
+        return lo > hi ? 0 : countBelow(hi, true) - countBelow(lo, false);
+    }
+
+    // Keys less than key, or less than or equal to it when inclusive.
+    private int countBelow(int key, boolean inclusive) {
+        int count = 0;
+        TreeNode node = root;
+        while (node != null) {
+            if (key < node.val || (key == node.val && !inclusive)) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    private AVLTree(TreeNode root) {
+        this.root = root;
+    }
+
+    public AVLTree() {
+    }
+
+    // Builds a perfectly balanced tree from strictly increasing keys in O(n).
+    public static AVLTree buildFromSorted(int[] sorted) {
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1] >= sorted[i]) {
+                throw new IllegalArgumentException("keys must be strictly increasing at " + i);
+            }
+        }
+        return new AVLTree(build(sorted, 0, sorted.length));
+    }
+
+    private static TreeNode build(int[] sorted, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        TreeNode node = new TreeNode(sorted[mid]);
+        return node(build(sorted, from, mid), node, build(sorted, mid + 1, to));
+    }
+
+    // Joins left, key and right, which must all be in increasing order, in O(|height difference|).
+    public static AVLTree join(AVLTree left, int key, AVLTree right) {
+        if ((left.root != null && max(left.root) >= key) || (right.root != null && right.minVal(right.root) <= key)) {
+            throw new IllegalArgumentException("join needs left < " + key + " < right");
+        }
+        AVLTree joined = new AVLTree(join(left.root, new TreeNode(key), right.root));
+        left.root = null;
+        right.root = null;
+        return joined;
+    }
+
+    // Keeps the keys less than or equal to key here and moves the keys greater than key to the returned tree.
+    public AVLTree splitAt(int key) {
+        Split s = split(root, key);
+        root = s.found ? join(s.left, s.last, null) : s.left;
+        return new AVLTree(s.right);
+    }
+
+    public static AVLTree union(AVLTree a, AVLTree b) {
+        return setOperation(UNION, a, b);
+    }
+
+    public static AVLTree intersection(AVLTree a, AVLTree b) {
+        return setOperation(INTERSECTION, a, b);
+    }
+
+    // The keys of a that are not in b.
+    public static AVLTree difference(AVLTree a, AVLTree b) {
+        return setOperation(DIFFERENCE, a, b);
+    }
+
+    private static AVLTree setOperation(int op, AVLTree a, AVLTree b) {
+        if (a == b) {
+            // Splitting a tree around its own nodes would tear it apart, so apply a op a = a (or empty) directly.
+            TreeNode result = op == DIFFERENCE ? null : a.root;
+            a.root = null;
+            return new AVLTree(result);
+        }
+        TreeNode result = new SetTask(op, a.root, b.root).invoke();
+        a.root = null;
+        b.root = null;
+        return new AVLTree(result);
+    }
+
+    private static final class SetTask extends RecursiveTask<TreeNode> {
+        private static final long serialVersionUID = 1L;
+        private final int op;
+        private final TreeNode a, b;
+
+        SetTask(int op, TreeNode a, TreeNode b) {
+            this.op = op;
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        protected TreeNode compute() {
+            return apply(op, a, b, true);
+        }
+    }
+
+    private static TreeNode apply(int op, TreeNode a, TreeNode b, boolean parallel) {
+        if (a == null) {
+            return op == UNION ? b : null;
+        }
+        if (b == null) {
+            return op == INTERSECTION ? null : a;
+        }
+
+        // Cut one tree around the other's root, leaving two independent halves.
+        TreeNode pivot, a1, a2, b1, b2;
+        boolean keepPivot;
+        if (op == DIFFERENCE) {
+            Split s = split(a, b.val);
+            pivot = b;
+            a1 = s.left;
+            a2 = s.right;
+            b1 = b.left;
+            b2 = b.right;
+            keepPivot = false;
+        } else {
+            Split s = split(b, a.val);
+            pivot = a;
+            a1 = a.left;
+            a2 = a.right;
+            b1 = s.left;
+            b2 = s.right;
+            keepPivot = op == UNION || s.found;
+        }
+
+        TreeNode left, right;
+        if (parallel && size(a) + size(b) > GRAIN) {
+            SetTask task = new SetTask(op, a1, b1);
+            task.fork();
+            right = apply(op, a2, b2, true);
+            left = task.join();
+        } else {
+            left = apply(op, a1, b1, false);
+            right = apply(op, a2, b2, false);
+        }
+        return keepPivot ? join(left, pivot, right) : join2(left, right);
+    }
+
+    private static final class Split {
+        TreeNode left, right;
+        boolean found;
+        // The node taken off: the one holding key for split, the last one for splitLast.
+        TreeNode last;
+    }
+
+    // Splits tree into the keys less than and greater than key; the node holding key is left in last.
+    private static Split split(TreeNode tree, int key) {
+        if (tree == null) {
+            return new Split();
+        }
+        if (key == tree.val) {
+            Split s = new Split();
+            s.left = tree.left;
+            s.right = tree.right;
+            s.found = true;
+            s.last = tree;
+            return s;
+        }
+        if (key < tree.val) {
+            TreeNode right = tree.right;
+            Split s = split(tree.left, key);
+            s.right = join(s.right, tree, right);
+            return s;
+        }
+        TreeNode left = tree.left;
+        Split s = split(tree.right, key);
+        s.left = join(left, tree, s.left);
+        return s;
+    }
+
+    // Joins two trees where every key of left is less than every key of right.
+    private static TreeNode join2(TreeNode left, TreeNode right) {
+        if (left == null) {
+            return right;
+        }
+        Split s = splitLast(left);
+        return join(s.left, s.last, right);
+    }
+
+    private static Split splitLast(TreeNode tree) {
+        if (tree.right == null) {
+            Split s = new Split();
+            s.left = tree.left;
+            s.last = tree;
+            return s;
+        }
+        TreeNode left = tree.left;
+        Split s = splitLast(tree.right);
+        s.left = join(left, tree, s.left);
+        return s;
+    }
+
+    // Makes key the parent of left and right, rebalancing down the taller side when their heights differ by more than one.
+    private static TreeNode join(TreeNode left, TreeNode key, TreeNode right) {
+        if (height(left) > height(right) + 1) {
+            return joinRight(left, key, right);
+        }
+        if (height(right) > height(left) + 1) {
+            return joinLeft(left, key, right);
+        }
+        return node(left, key, right);
+    }
+
+    // left is the taller: walk down its right spine to where right fits, then rebalance on the way up.
+    private static TreeNode joinRight(TreeNode left, TreeNode key, TreeNode right) {
+        TreeNode inner = left.right;
+        boolean fits = height(inner) <= height(right) + 1;
+        TreeNode joined = fits ? node(inner, key, right) : joinRight(inner, key, right);
+        if (height(joined) <= height(left.left) + 1) {
+            return node(left.left, left, joined);
+        }
+        if (fits) {
+            // joined leans left, so a single rotation would not balance it.
+            return rotateLeft(node(left.left, left, rotateRight(joined)));
+        }
+        return rotateLeft(node(left.left, left, joined));
+    }
+
+    private static TreeNode joinLeft(TreeNode left, TreeNode key, TreeNode right) {
+        TreeNode inner = right.left;
+        boolean fits = height(inner) <= height(left) + 1;
+        TreeNode joined = fits ? node(left, key, inner) : joinLeft(left, key, inner);
+        if (height(joined) <= height(right.right) + 1) {
+            return node(joined, right, right.right);
+        }
+        if (fits) {
+            return rotateRight(node(rotateLeft(joined), right, right.right));
+        }
+        return rotateRight(node(joined, right, right.right));
+    }
+
+    private static TreeNode node(TreeNode left, TreeNode node, TreeNode right) {
+        node.left = left;
+        node.right = right;
+        update(node);
+        return node;
+    }
+
+    private static int max(TreeNode node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.val;
+    }
+
+    @Override
+    public TreeNode search(int val, TreeNode node) {
+        while (node != null && node.val != val) {
+            node = val < node.val ? node.left : node.right;
+        }
+        return node;
+    }
+
+    public boolean contains(int val) {
+        return search(val, root) != null;
+    }
+
+    @Override
+    public int minVal(TreeNode r) {
+        while (r.left != null) {
+            r = r.left;
+        }
+
+        return r.val;
+    }
+
+    // The traversals recurse, which is safe here because the height is logarithmic.
+    @Override
+    public void preOrder(TreeNode root) {
+        if (root != null) {
+            System.out.println(root.val);
+            preOrder(root.left);
+            preOrder(root.right);
+        }
+    }
+
+    @Override
+    public void inOrder(TreeNode root) {
+        if (root != null) {
+            inOrder(root.left);
+            System.out.println(root.val);
+            inOrder(root.right);
+        }
+    }
+
+    @Override
+    public void postOrder(TreeNode root) {
+        if (root != null) {
+            postOrder(root.left);
+            postOrder(root.right);
+            System.out.println(root.val);
+        }
+    }
+
+    // Level by level, so it works on degenerate trees too.
+    private static int measureHeight(TreeNode root) {
+        ArrayDeque<TreeNode> level = new ArrayDeque<>();
+        if (root != null) {
+            level.add(root);
+        }
+        int height = 0;
+        while (!level.isEmpty()) {
+            height++;
+            for (int i = level.size(); i > 0; i--) {
+                TreeNode node = level.poll();
+                if (node.left != null) level.add(node.left);
+                if (node.right != null) level.add(node.right);
+            }
+        }
+        return height;
+    }
+
+    // The traversal alternative: count [lo, hi] with an in-order walk.
+    private static int walkCount(TreeNode root, int lo, int hi) {
+        ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+        int count = 0;
+        for (TreeNode node = root; node != null || !stack.isEmpty(); node = node.right) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            if (node.val >= lo && node.val <= hi) count++;
+        }
+        return count;
+    }
+
+    private static int walkSelect(TreeNode root, int k) {
+        ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+        for (TreeNode node = root; ; node = node.right) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            if (k-- == 0) return node.val;
+        }
+    }
+
+    private static String run(BST tree, int[] keys) {
+        long start = System.nanoTime();
+        int added = 0;
+        try {
+            for (int k : keys) {
+                tree.add(k);
+                added++;
+            }
+        } catch (StackOverflowError e) {
+            return String.format("StackOverflowError after %d adds", added);
+        }
+        long addNanos = System.nanoTime() - start;
+        TreeNode r = tree instanceof AVLTree ? ((AVLTree) tree).root() : ((BinarySearchTree) tree).root();
+
+        int found = 0;
+        start = System.nanoTime();
+        try {
+            for (int k : keys) {
+                if (tree.search(k, r) != null) found++;
+            }
+        } catch (StackOverflowError e) {
+            return String.format("add %.0f ns, search StackOverflowError", (double) addNanos / keys.length);
+        }
+        long searchNanos = System.nanoTime() - start;
+        return String.format("add %.0f ns, search %.0f ns, height %d (found %d)", (double) addNanos / keys.length,
+                (double) searchNanos / keys.length, measureHeight(r), found);
+    }
+
+    private static long timeSetOperation(int op, int[] x, int[] y, boolean parallel, int[] size) {
+        AVLTree a = buildFromSorted(x);
+        AVLTree b = buildFromSorted(y);
+        System.gc();
+        long start = System.nanoTime();
+        TreeNode result = parallel ? new SetTask(op, a.root, b.root).invoke() : apply(op, a.root, b.root, false);
+        long elapsed = System.nanoTime() - start;
+        size[0] = size(result);
+        return elapsed / 1_000_000;
+    }
+
+    public static void main(String[] args) {
+        AVLTree avl = new AVLTree();
+        for (int k : new int[]{10, 5, 15, 16, 13, 152}) {
+            avl.add(k);
+        }
+        avl.del(10);
+        avl.inOrder(avl.root);
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] sorted = new int[n];
+        int[] reverse = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+            reverse[i] = n - i;
+        }
+        int[] random = sorted.clone();
+        Random rnd = new Random(23);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = random[i];
+            random[i] = random[j];
+            random[j] = t;
+        }
+
+        for (String order : new String[]{"sorted", "reverse", "random"}) {
+            int[] keys = order.equals("sorted") ? sorted : order.equals("reverse") ? reverse : random;
+            System.out.printf("%-7s %d keys  BinarySearchTree: %s%n", order, n, run(new BinarySearchTree(), keys));
+            AVLTree tree = new AVLTree();
+            System.out.printf("%-7s %d keys  AVLTree:          %s%n", order, n, run(tree, keys));
+
+            long start = System.nanoTime();
+            for (int k : keys) {
+                tree.del(k);
+            }
+            System.out.printf("%-7s %d keys  AVLTree del %.0f ns, size after %d%n", order, n,
+                    (double) (System.nanoTime() - start) / n, tree.size());
+        }
+
+        AVLTree tree = new AVLTree();
+        for (int k : random) {
+            tree.add(k);
+        }
+        int queries = 1_000_000;
+        int walks = 100;
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            sum += tree.rank(rnd.nextInt(n));
+        }
+        double rank = (double) (System.nanoTime() - start) / queries;
+        start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            sum += tree.select(rnd.nextInt(n));
+        }
+        double select = (double) (System.nanoTime() - start) / queries;
+        start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            int lo = rnd.nextInt(n);
+            sum += tree.rangeCount(lo, lo + rnd.nextInt(n));
+        }
+        double rangeCount = (double) (System.nanoTime() - start) / queries;
+
+        start = System.nanoTime();
+        for (int i = 0; i < walks; i++) {
+            sum -= walkSelect(tree.root, rnd.nextInt(n));
+        }
+        double walkSelect = (double) (System.nanoTime() - start) / walks;
+        start = System.nanoTime();
+        for (int i = 0; i < walks; i++) {
+            int lo = rnd.nextInt(n);
+            sum -= walkCount(tree.root, lo, lo + rnd.nextInt(n));
+        }
+        double walkCount = (double) (System.nanoTime() - start) / walks;
+        System.out.printf("%d keys: rank %.0f ns, select %.0f ns, rangeCount %.0f ns; "
+                + "by traversal select %.0f us, rangeCount %.0f us (%d)%n",
+                n, rank, select, rangeCount, walkSelect / 1e3, walkCount / 1e3, sum);
+
+        // Reconciling two snapshots: multiples of 2 and of 3, m keys each.
+        int m = 5_000_000;
+        int[] twos = new int[m];
+        int[] threes = new int[m];
+        for (int i = 0; i < m; i++) {
+            twos[i] = 2 * i;
+            threes[i] = 3 * i;
+        }
+        start = System.nanoTime();
+        AVLTree merged = buildFromSorted(twos);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        for (int k : threes) {
+            merged.add(k);
+        }
+        System.out.printf("%d + %d keys: buildFromSorted %dms, union by add %dms (size %d)%n", m, m, buildMillis,
+                (System.nanoTime() - start) / 1_000_000, merged.size());
+        int[] resultSize = new int[1];
+        String[] names = {"union", "intersection", "difference"};
+        for (int round = 0; round < 2; round++) {
+            for (int op = UNION; op <= DIFFERENCE; op++) {
+                long sequential = timeSetOperation(op, twos, threes, false, resultSize);
+                long parallel = timeSetOperation(op, twos, threes, true, resultSize);
+                System.out.printf("%-12s sequential %dms, fork/join %dms on %d threads (size %d)%n", names[op],
+                        sequential, parallel, ForkJoinPool.getCommonPoolParallelism(),
+                        resultSize[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package Datastructures;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Decides whether a new key should displace the cache's eviction victim.
+ * The cache reports every access through {@link #record(int)} so that the
+ * policy can build up whatever history it needs.
+ */
+public interface AdmissionPolicy {
+
+  // Plain LRU: every new key is admitted and the victim is always evicted.
+  AdmissionPolicy ALWAYS = new AdmissionPolicy() {
+    @Override
+    public void record(int key) {
+    }
+
+    @Override
+    public boolean admit(int candidate, int victim) {
+      return true;
+    }
+  };
+
+  void record(int key);
+
+  boolean admit(int candidate, int victim);
+}
@@ -0,0 +1,203 @@
+package Datastructures;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Streaming multi-pattern matcher over the words of a {@link Trie}. The
+ * constructor compiles the trie's failure and output links into a flat
+ * transition table with one int per state and letter. Each entry holds the
+ * next state's row offset, negated when that state ends a word, so the hot
+ * loop is one load and a sign test per char. States are numbered breadth
+ * first, so the shallow states that most chars visit sit together in cache.
+ * The state carries over between calls, so a match may span two chunks.
+ * Offsets are counted from the first char ever fed, and nothing is
+ * allocated per char.
+ *
+ * Like the trie itself, patterns are made of 'a' to 'z'. Any other char
+ * cannot be part of a match and sends the matcher back to the root.
+ */
+public class AhoCorasickMatcher {
+
+    public interface Listener {
+        // offset is where the match starts in the stream.
+        void onMatch(long offset, String pattern);
+    }
+
+    private static final int ROOT = 0;
+
+    // delta[row + letter] is the row (state * 26) of the next state with failure links
+    // already followed, stored as ~row when that state has matches to report.
+    private final int[] delta;
+    // First state on this state's output chain that ends a word, or -1; then the next one after it.
+    private final int[] output;
+    private final int[] nextOutput;
+    private final String[] words;
+
+    private final Listener listener;
+    private final char[] chunk = new char[8192];
+    private final byte[] bytes = new byte[8192];
+    private int row;
+    private long position;
+
+    public AhoCorasickMatcher(Trie trie, Listener listener) {
+        this.listener = listener;
+
+        List<TrieNode> order = new ArrayList<>();
+        Map<TrieNode, Integer> ids = new IdentityHashMap<>();
+        TrieNode root = trie.buildLinks();
+        order.add(root);
+        ids.put(root, ROOT);
+        for (int s = 0; s < order.size(); s++) {
+            for (TrieNode child : order.get(s).children) {
+                if (child != null) {
+                    ids.put(child, order.size());
+                    order.add(child);
+                }
+            }
+        }
+
+        int n = order.size();
+        delta = new int[n * 26];
+        output = new int[n];
+        nextOutput = new int[n];
+        words = new String[n];
+        for (int s = 0; s < n; s++) {
+            TrieNode node = order.get(s);
+            int next = node.output == null ? -1 : ids.get(node.output);
+            words[s] = node.isEnd ? node.word : null;
+            output[s] = node.isEnd ? s : next;
+            nextOutput[s] = next;
+        }
+        for (int s = 0; s < n; s++) {
+            TrieNode node = order.get(s);
+            for (int i = 0; i < 26; i++) {
+                TrieNode child = node.children[i];
+                if (child != null) {
+                    int target = ids.get(child);
+                    delta[s * 26 + i] = output[target] >= 0 ? ~(target * 26) : target * 26;
+                } else if (s != ROOT) {
+                    // The fail state is shallower, so its row is already filled in.
+                    delta[s * 26 + i] = delta[ids.get(node.fail) * 26 + i];
+                }
+            }
+        }
+    }
+
+    // Forgets any partial match and restarts offsets at zero.
+    public void reset() {
+        row = ROOT;
+        position = 0;
+    }
+
+    public void feed(char[] text, int from, int length) {
+        int r = row;
+        for (int i = from; i < from + length; i++) {
+            int index = text[i] - 'a';
+            if (index < 0 || index >= 26) {
+                r = ROOT;
+                continue;
+            }
+            int next = delta[r + index];
+            if (next < 0) {
+                r = ~next;
+                emit(r / 26, position + (i - from));
+            } else {
+                r = next;
+            }
+        }
+        row = r;
+        position += length;
+    }
+
+    // Each byte is taken as one char (ASCII / Latin-1). Consumes the buffer's remaining bytes.
+    public void feed(ByteBuffer text) {
+        while (text.hasRemaining()) {
+            int n = Math.min(bytes.length, text.remaining());
+            text.get(bytes, 0, n);
+            int r = row;
+            for (int i = 0; i < n; i++) {
+                int index = bytes[i] - 'a';
+                if (index < 0 || index >= 26) {
+                    r = ROOT;
+                    continue;
+                }
+                int next = delta[r + index];
+                if (next < 0) {
+                    r = ~next;
+                    emit(r / 26, position + i);
+                } else {
+                    r = next;
+                }
+            }
+            row = r;
+            position += n;
+        }
+    }
+
+    public void scan(Reader reader) throws IOException {
+        int n;
+        while ((n = reader.read(chunk)) != -1) {
+            feed(chunk, 0, n);
+        }
+    }
+
+    private void emit(int state, long pos) {
+        for (int match = output[state]; match >= 0; match = nextOutput[match]) {
+            listener.onMatch(pos - words[match].length() + 1, words[match]);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Trie demo = new Trie();
+        demo.insert("he");
+        demo.insert("she");
+        demo.insert("his");
+        demo.insert("hers");
+        AhoCorasickMatcher printer = new AhoCorasickMatcher(demo,
+                (offset, pattern) -> System.out.println(offset + " " + pattern));
+        printer.scan(new StringReader("ushers and his sheep"));
+
+        int patterns = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int megabytes = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        Random random = new Random(29);
+        Trie trie = new Trie(1);
+        for (int i = 0; i < patterns; i++) {
+            int length = 4 + random.nextInt(8);
+            StringBuilder sb = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            trie.insert(sb.toString());
+        }
+
+        // Random lowercase text with spaces, standing in for a log or document stream.
+        ByteBuffer text = ByteBuffer.allocateDirect(megabytes << 20);
+        while (text.hasRemaining()) {
+            int r = random.nextInt(32);
+            text.put((byte) (r < 26 ? 'a' + r : ' '));
+        }
+
+        long[] matches = {0};
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(trie, (offset, pattern) -> matches[0]++);
+        for (int round = 0; round < 3; round++) {
+            text.flip();
+            matcher.reset();
+            matches[0] = 0;
+            long start = System.nanoTime();
+            matcher.feed(text);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%d patterns over %dMB: %.0f MB/s, %d matches%n",
+                    patterns, megabytes, megabytes * 1e9 / elapsed, matches[0]);
+        }
+    }
+}
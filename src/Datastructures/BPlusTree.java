@@ -0,0 +1,634 @@
+package Datastructures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Disk-based B+ tree from int keys to int values. Nodes are fixed-size
+ * pages in one file. Pages are read and written through a buffer pool that
+ * holds a set number of them and evicts with the CLOCK algorithm, so the
+ * index can be far larger than the heap. Internal nodes hold up to fanout
+ * children. Leaves hold up to fanout entries and link to the next leaf, so a
+ * range scan descends once and then reads the leaves in order.
+ *
+ * Page layout, in little-endian ints: type, count, next leaf, fanout keys,
+ * then fanout values (leaf) or children (internal). Page 0 holds the tree's
+ * metadata, so page id 0 also means "no next leaf". Not thread-safe.
+ */
+public class BPlusTree implements AutoCloseable {
+
+    private static final int MAGIC = 0x42505431; // "BPT1"
+    private static final int META = 0;
+    private static final int NONE = 0;
+    private static final int TYPE = 0, COUNT = 1, NEXT = 2, KEYS = 3;
+    private static final int LEAF = 0, INTERNAL = 1;
+
+    private final PageStore store;
+    private final int fanout;
+    // Offset of the values (leaf) or children (internal) in a page.
+    private final int slots;
+    private int root;
+    private int height;
+    private long size;
+
+    // Set by insert when a node splits: the separator key and the new right page.
+    private int splitKey, splitPage;
+    private final int[] keyBuffer, childBuffer;
+
+    private BPlusTree(FileChannel channel, int fanout, int poolPages, int pageCount) {
+        if (fanout < 4) {
+            throw new IllegalArgumentException("fanout must be at least 4: " + fanout);
+        }
+        this.fanout = fanout;
+        this.slots = KEYS + fanout;
+        this.store = new PageStore(channel, pageBytes(fanout), poolPages, pageCount);
+        this.keyBuffer = new int[fanout];
+        this.childBuffer = new int[fanout + 1];
+    }
+
+    private static int pageBytes(int fanout) {
+        return 4 * (KEYS + 2 * fanout);
+    }
+
+    /**
+     * Creates an empty tree in file, replacing anything there. A fanout of
+     * 510 fills a 4KB page. poolPages is how many pages are kept in memory.
+     */
+    public static BPlusTree create(Path file, int fanout, int poolPages) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        BPlusTree tree = new BPlusTree(channel, fanout, poolPages, 1);
+        tree.root = tree.store.allocate();
+        int f = tree.store.pin(tree.root);
+        tree.store.page(f).put(TYPE, LEAF);
+        tree.store.unpin(f, true);
+        tree.height = 1;
+        return tree;
+    }
+
+    // Opens a tree written by create and closed or flushed.
+    public static BPlusTree open(Path file, int poolPages) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer meta = ByteBuffer.allocate(28).order(ByteOrder.LITTLE_ENDIAN);
+        while (meta.hasRemaining()) {
+            if (channel.read(meta, meta.position()) <= 0) {
+                break;
+            }
+        }
+        if (meta.position() < meta.capacity() || meta.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException("not a B+ tree: " + file);
+        }
+        BPlusTree tree = new BPlusTree(channel, meta.getInt(4), poolPages, meta.getInt(12));
+        tree.root = meta.getInt(8);
+        tree.size = meta.getLong(16);
+        tree.height = meta.getInt(24);
+        return tree;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    // Returns the value for key, or missing if the key is absent.
+    public int get(int key, int missing) {
+        int page = leafFor(key);
+        int f = store.pin(page);
+        IntBuffer p = store.page(f);
+        int count = p.get(COUNT);
+        int i = lowerBound(p, count, key);
+        int result = i < count && p.get(KEYS + i) == key ? p.get(slots + i) : missing;
+        store.unpin(f, false);
+        return result;
+    }
+
+    // Inserts key, or replaces its value if it is already present.
+    public void put(int key, int value) {
+        if (insert(root, key, value)) {
+            int page = store.allocate();
+            int f = store.pin(page);
+            IntBuffer p = store.page(f);
+            p.put(TYPE, INTERNAL).put(COUNT, 1).put(KEYS, splitKey);
+            p.put(slots, root).put(slots + 1, splitPage);
+            store.unpin(f, true);
+            root = page;
+            height++;
+        }
+    }
+
+    // Returns true if page split, leaving the new right sibling in splitKey and splitPage.
+    private boolean insert(int page, int key, int value) {
+        int f = store.pin(page);
+        IntBuffer p = store.page(f);
+        int count = p.get(COUNT);
+
+        if (p.get(TYPE) == LEAF) {
+            int i = lowerBound(p, count, key);
+            if (i < count && p.get(KEYS + i) == key) {
+                p.put(slots + i, value);
+                store.unpin(f, true);
+                return false;
+            }
+            size++;
+            if (count < fanout) {
+                insertAt(p, count, i, key, value);
+                store.unpin(f, true);
+                return false;
+            }
+
+            // Full: move the upper half to a new right sibling, then insert into the half the key belongs to.
+            int right = store.allocate();
+            int rf = store.pin(right);
+            IntBuffer r = store.page(rf);
+            int half = count / 2;
+            int moved = count - half;
+            for (int j = 0; j < moved; j++) {
+                r.put(KEYS + j, p.get(KEYS + half + j));
+                r.put(slots + j, p.get(slots + half + j));
+            }
+            r.put(TYPE, LEAF).put(COUNT, moved).put(NEXT, p.get(NEXT));
+            p.put(COUNT, half).put(NEXT, right);
+            if (i <= half) {
+                insertAt(p, half, i, key, value);
+            } else {
+                insertAt(r, moved, i - half, key, value);
+            }
+            splitKey = r.get(KEYS);
+            splitPage = right;
+            store.unpin(rf, true);
+            store.unpin(f, true);
+            return true;
+        }
+
+        // Unpinned during the descent, so a deep tree never pins more than a couple of pages.
+        int i = upperBound(p, count, key);
+        int child = p.get(slots + i);
+        store.unpin(f, false);
+        if (!insert(child, key, value)) {
+            return false;
+        }
+
+        f = store.pin(page);
+        p = store.page(f);
+        if (count < fanout - 1) {
+            for (int j = count; j > i; j--) {
+                p.put(KEYS + j, p.get(KEYS + j - 1));
+                p.put(slots + j + 1, p.get(slots + j));
+            }
+            p.put(KEYS + i, splitKey).put(slots + i + 1, splitPage).put(COUNT, count + 1);
+            store.unpin(f, true);
+            return false;
+        }
+
+        // Full: lay out all fanout keys and fanout + 1 children, keep the lower
+        // half here, move the upper half to a new page and push the middle key up.
+        for (int j = 0, k = 0; j < fanout; j++) {
+            keyBuffer[j] = j == i ? splitKey : p.get(KEYS + k++);
+        }
+        for (int j = 0, k = 0; j <= fanout; j++) {
+            childBuffer[j] = j == i + 1 ? splitPage : p.get(slots + k++);
+        }
+        int mid = fanout / 2;
+        int right = store.allocate();
+        int rf = store.pin(right);
+        IntBuffer r = store.page(rf);
+        for (int j = 0; j < mid; j++) {
+            p.put(KEYS + j, keyBuffer[j]);
+            p.put(slots + j, childBuffer[j]);
+        }
+        p.put(slots + mid, childBuffer[mid]).put(COUNT, mid);
+        int moved = fanout - mid - 1;
+        for (int j = 0; j < moved; j++) {
+            r.put(KEYS + j, keyBuffer[mid + 1 + j]);
+            r.put(slots + j, childBuffer[mid + 1 + j]);
+        }
+        r.put(slots + moved, childBuffer[fanout]);
+        r.put(TYPE, INTERNAL).put(COUNT, moved);
+        splitKey = keyBuffer[mid];
+        splitPage = right;
+        store.unpin(rf, true);
+        store.unpin(f, true);
+        return true;
+    }
+
+    private void insertAt(IntBuffer p, int count, int i, int key, int value) {
+        for (int j = count; j > i; j--) {
+            p.put(KEYS + j, p.get(KEYS + j - 1));
+            p.put(slots + j, p.get(slots + j - 1));
+        }
+        p.put(KEYS + i, key).put(slots + i, value).put(COUNT, count + 1);
+    }
+
+    /**
+     * Fills an empty tree from strictly increasing keys, writing every page
+     * once. Leaves are packed full, which suits data that is mostly read;
+     * later puts into a full leaf split it.
+     */
+    public void load(int[] keys, int[] values) {
+        if (size != 0) {
+            throw new IllegalStateException("load needs an empty tree");
+        }
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("keys must be strictly increasing at " + i);
+            }
+        }
+        if (keys.length == 0) {
+            return;
+        }
+
+        int nodes = (keys.length + fanout - 1) / fanout;
+        int[] firstKeys = new int[nodes];
+        int[] pages = new int[nodes];
+        int page = root;
+        for (int l = 0; l < nodes; l++) {
+            int from = l * fanout;
+            int count = Math.min(fanout, keys.length - from);
+            int next = l + 1 < nodes ? store.allocate() : NONE;
+            int f = store.pin(page);
+            IntBuffer p = store.page(f);
+            p.put(TYPE, LEAF).put(COUNT, count).put(NEXT, next);
+            p.position(KEYS);
+            p.put(keys, from, count);
+            p.position(slots);
+            p.put(values, from, count);
+            store.unpin(f, true);
+            firstKeys[l] = keys[from];
+            pages[l] = page;
+            page = next;
+        }
+
+        height = 1;
+        while (nodes > 1) {
+            int parents = (nodes + fanout - 1) / fanout;
+            for (int g = 0; g < parents; g++) {
+                int from = g * fanout;
+                int children = Math.min(fanout, nodes - from);
+                int parent = store.allocate();
+                int f = store.pin(parent);
+                IntBuffer p = store.page(f);
+                p.put(TYPE, INTERNAL).put(COUNT, children - 1);
+                for (int c = 0; c < children; c++) {
+                    if (c > 0) {
+                        p.put(KEYS + c - 1, firstKeys[from + c]);
+                    }
+                    p.put(slots + c, pages[from + c]);
+                }
+                store.unpin(f, true);
+                firstKeys[g] = firstKeys[from];
+                pages[g] = parent;
+            }
+            nodes = parents;
+            height++;
+        }
+        root = pages[0];
+        size = keys.length;
+    }
+
+    // Lazily iterates the keys in [lo, hi] in order; value() gives the value of the last one returned.
+    public Scan rangeScan(int lo, int hi) {
+        return new Scan(leafFor(lo), lo, hi);
+    }
+
+    /**
+     * Copies one leaf at a time, so a scan pins nothing between calls. Puts
+     * made while a scan is open may or may not be seen by it.
+     */
+    public final class Scan implements PrimitiveIterator.OfInt {
+        private final int hi;
+        private final int[] keys = new int[fanout];
+        private final int[] values = new int[fanout];
+        private int count, pos, next;
+        private int value;
+
+        private Scan(int leaf, int lo, int hi) {
+            this.hi = hi;
+            load(leaf);
+            while (pos < count && keys[pos] < lo) {
+                pos++;
+            }
+        }
+
+        private void load(int leaf) {
+            int f = store.pin(leaf);
+            IntBuffer p = store.page(f);
+            count = p.get(COUNT);
+            next = p.get(NEXT);
+            p.position(KEYS);
+            p.get(keys, 0, count);
+            p.position(slots);
+            p.get(values, 0, count);
+            store.unpin(f, false);
+            pos = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pos == count && next != NONE) {
+                load(next);
+            }
+            return pos < count && keys[pos] <= hi;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            value = values[pos];
+            return keys[pos++];
+        }
+
+        public int value() {
+            return value;
+        }
+    }
+
+    private int leafFor(int key) {
+        int page = root;
+        for (int level = 1; level < height; level++) {
+            int f = store.pin(page);
+            IntBuffer p = store.page(f);
+            int next = p.get(slots + upperBound(p, p.get(COUNT), key));
+            store.unpin(f, false);
+            page = next;
+        }
+        return page;
+    }
+
+    // First i with keys[i] >= key.
+    private static int lowerBound(IntBuffer p, int count, int key) {
+        int low = 0, high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (p.get(KEYS + mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First i with keys[i] > key, which is the child that holds key.
+    private static int upperBound(IntBuffer p, int count, int key) {
+        int low = 0, high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (p.get(KEYS + mid) <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Writes the metadata and every dirty page, then forces them to disk.
+    public void flush() {
+        int f = store.pin(META);
+        IntBuffer p = store.page(f);
+        p.put(0, MAGIC).put(1, fanout).put(2, root).put(3, store.pageCount);
+        p.put(4, (int) size).put(5, (int) (size >>> 32)).put(6, height);
+        store.unpin(f, true);
+        store.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            store.channel.close();
+        }
+    }
+
+    /**
+     * Fixed pool of page frames over the file. pin returns the frame holding
+     * a page, reading it in if needed. A pinned frame is never evicted. When
+     * every frame is pinned, pin throws instead of growing the pool.
+     */
+    private static final class PageStore {
+        final FileChannel channel;
+        final int pageBytes;
+        final ByteBuffer[] raw;
+        final IntBuffer[] frames;
+        final int[] pageOf, pins;
+        final boolean[] dirty, referenced;
+        final Map<Integer, Integer> frameOf = new HashMap<>();
+        int hand;
+        int pageCount;
+        long reads, writes;
+
+        PageStore(FileChannel channel, int pageBytes, int poolPages, int pageCount) {
+            if (poolPages < 4) {
+                throw new IllegalArgumentException("the pool needs at least 4 pages: " + poolPages);
+            }
+            this.channel = channel;
+            this.pageBytes = pageBytes;
+            this.pageCount = pageCount;
+            raw = new ByteBuffer[poolPages];
+            frames = new IntBuffer[poolPages];
+            pageOf = new int[poolPages];
+            pins = new int[poolPages];
+            dirty = new boolean[poolPages];
+            referenced = new boolean[poolPages];
+            for (int i = 0; i < poolPages; i++) {
+                raw[i] = ByteBuffer.allocateDirect(pageBytes).order(ByteOrder.LITTLE_ENDIAN);
+                frames[i] = raw[i].asIntBuffer();
+                pageOf[i] = -1;
+            }
+        }
+
+        // A new page id past the end of the file; it reads as zeros until written.
+        int allocate() {
+            return pageCount++;
+        }
+
+        int pin(int page) {
+            Integer frame = frameOf.get(page);
+            int f = frame == null ? fetch(page) : frame;
+            pins[f]++;
+            referenced[f] = true;
+            return f;
+        }
+
+        IntBuffer page(int frame) {
+            return frames[frame];
+        }
+
+        void unpin(int frame, boolean modified) {
+            pins[frame]--;
+            dirty[frame] |= modified;
+        }
+
+        // CLOCK: skip pinned frames, give referenced ones a second chance.
+        private int fetch(int page) {
+            for (int step = 0; step <= 2 * frames.length; step++) {
+                int f = hand;
+                hand = hand + 1 == frames.length ? 0 : hand + 1;
+                if (pins[f] > 0) {
+                    continue;
+                }
+                if (referenced[f]) {
+                    referenced[f] = false;
+                    continue;
+                }
+                if (pageOf[f] >= 0) {
+                    if (dirty[f]) {
+                        write(f);
+                    }
+                    frameOf.remove(pageOf[f]);
+                }
+                read(f, page);
+                return f;
+            }
+            throw new IllegalStateException("all " + frames.length + " buffer pool pages are pinned");
+        }
+
+        private void read(int f, int page) {
+            ByteBuffer buffer = raw[f].duplicate();
+            buffer.clear();
+            try {
+                long position = (long) page * pageBytes;
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) <= 0) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (buffer.position() > 0) {
+                reads++;
+            }
+            while (buffer.hasRemaining()) {
+                buffer.put((byte) 0);
+            }
+            pageOf[f] = page;
+            dirty[f] = false;
+            frameOf.put(page, f);
+        }
+
+        private void write(int f) {
+            ByteBuffer buffer = raw[f].duplicate();
+            buffer.clear();
+            try {
+                long position = (long) pageOf[f] * pageBytes;
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, position + buffer.position());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            dirty[f] = false;
+            writes++;
+        }
+
+        void flush() {
+            for (int f = 0; f < frames.length; f++) {
+                if (dirty[f]) {
+                    write(f);
+                }
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Bulk load, point lookups, puts and scans. The default pool is 8MB and
+     * the data 200MB, so most lookups go to the file. The OS page cache still
+     * serves those reads; to measure disk, use more keys than RAM.
+     */
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 25_000_000;
+        int fanout = 510;
+        int poolPages = 2048;
+        Path file = Files.createTempFile("bplustree", ".db");
+        Random random = new Random(37);
+
+        int[] keys = new int[n];
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = 3 * i;
+            values[i] = i;
+        }
+
+        try (BPlusTree tree = create(file, fanout, poolPages)) {
+            long start = System.nanoTime();
+            tree.load(keys, values);
+            tree.flush();
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("load %d keys: %dms (%.0f MB/s), height %d, file %dMB%n", n, elapsed / 1_000_000,
+                    8.0 * n / (1 << 20) * 1e9 / elapsed, tree.height(), Files.size(file) >> 20);
+
+            int lookups = 1_000_000;
+            long reads = tree.store.reads;
+            long sum = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                sum += tree.get(3 * random.nextInt(n), -1);
+            }
+            elapsed = System.nanoTime() - start;
+            System.out.printf("get: %.0f ns, %.2f page reads per lookup%n", (double) elapsed / lookups,
+                    (double) (tree.store.reads - reads) / lookups);
+
+            start = System.nanoTime();
+            long scanned = 0;
+            for (Scan scan = tree.rangeScan(Integer.MIN_VALUE, Integer.MAX_VALUE); scan.hasNext(); scanned++) {
+                sum += scan.nextInt() + scan.value();
+            }
+            elapsed = System.nanoTime() - start;
+            System.out.printf("full scan: %d keys, %.0fM keys/s%n", scanned, scanned * 1e3 / elapsed);
+
+            int scans = 100_000;
+            start = System.nanoTime();
+            for (int i = 0; i < scans; i++) {
+                int lo = 3 * random.nextInt(n);
+                for (Scan scan = tree.rangeScan(lo, lo + 3 * 99); scan.hasNext(); ) {
+                    sum += scan.nextInt();
+                }
+            }
+            elapsed = System.nanoTime() - start;
+            System.out.printf("100-key scans: %.0f ns each%n", (double) elapsed / scans);
+
+            int puts = 1_000_000;
+            long writes = tree.store.writes;
+            start = System.nanoTime();
+            for (int i = 0; i < puts; i++) {
+                tree.put(3 * random.nextInt(n) + 1, i);
+            }
+            elapsed = System.nanoTime() - start;
+            System.out.printf("put: %.0f ns, %.2f page writes per put, size %d (%d)%n", (double) elapsed / puts,
+                    (double) (tree.store.writes - writes) / puts, tree.size(), sum);
+        }
+
+        try (BPlusTree reopened = open(file, 64)) {
+            System.out.printf("reopened: size %d, get(%d) = %d%n", reopened.size(), 3 * 12345,
+                    reopened.get(3 * 12345, -1));
+        }
+        Files.delete(file);
+    }
+}
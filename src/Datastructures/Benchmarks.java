@@ -0,0 +1,21 @@
+package Datastructures;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Helpers shared by the demos' main methods.
+ */
+final class Benchmarks {
+
+  private Benchmarks() {
+  }
+
+  // Heap in use once the garbage from earlier steps is collected.
+  static long usedHeap() {
+    Runtime rt = Runtime.getRuntime();
+    for(int i = 0; i < 3; i++){
+      System.gc();
+    }
+    return rt.totalMemory() - rt.freeMemory();
+  }
+}
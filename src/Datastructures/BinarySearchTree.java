@@ -1,5 +1,11 @@
 package Datastructures;
 
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
 /**
  * Created by Naren on 5/19/17.
  */
@@ -7,6 +13,10 @@ public class BinarySearchTree implements BST {
 
     private TreeNode root;
 
+    TreeNode root() {
+        return root;
+    }
+
     @Override
     public void add(int val) {
         root = add(val, root);
@@ -31,9 +41,9 @@ public class BinarySearchTree implements BST {
         }
 
         if(val < node.val)
-            return search(val, root.left);
+            return search(val, node.left);
 
-        return search(val, root.right);
+        return search(val, node.right);
     }
 
     @Override
@@ -81,6 +91,37 @@ public class BinarySearchTree implements BST {
         }
     }
 
+    // Lazy versions of the traversals below. Each holds O(height) nodes instead of recursing.
+    public PrimitiveIterator.OfInt preOrderIterator() {
+        return TreeTraversal.preOrder(root);
+    }
+
+    public PrimitiveIterator.OfInt inOrderIterator() {
+        return TreeTraversal.inOrder(root);
+    }
+
+    public PrimitiveIterator.OfInt postOrderIterator() {
+        return TreeTraversal.postOrder(root);
+    }
+
+    public Spliterator.OfInt preOrderSpliterator() {
+        return TreeTraversal.preOrderSpliterator(root);
+    }
+
+    public Spliterator.OfInt postOrderSpliterator() {
+        return TreeTraversal.postOrderSpliterator(root);
+    }
+
+    // In order. It splits at subtrees, so a parallel stream divides the tree between threads.
+    public Spliterator.OfInt spliterator() {
+        return TreeTraversal.inOrderSpliterator(root, Long.MAX_VALUE);
+    }
+
+    // The keys in ascending order; call parallel() on it to aggregate on several cores.
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
     @Override
     public void del(int val) {
         root = del(root, val);
@@ -125,6 +166,40 @@ public class BinarySearchTree implements BST {
         bst.preOrder(bst.root);
         bst.inOrder(bst.root);
         bst.postOrder(bst.root);
+
+        // Fits the default heap; pass a larger n to measure bigger trees.
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        BinarySearchTree big = new BinarySearchTree();
+        Random random = new Random(41);
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            big.add(random.nextInt());
+        }
+        System.out.printf("built %d nodes in %dms, %d cores%n", big.stream().count(),
+                (System.nanoTime() - start) / 1_000_000, Runtime.getRuntime().availableProcessors());
+
+        for (int round = 0; round < 3; round++) {
+            start = System.nanoTime();
+            long sum = 0;
+            for (PrimitiveIterator.OfInt it = big.inOrderIterator(); it.hasNext(); ) {
+                sum += it.nextInt();
+            }
+            long iteratorMillis = (System.nanoTime() - start) / 1_000_000;
+            for (boolean parallel : new boolean[]{false, true}) {
+                IntStream keys = parallel ? big.stream().parallel() : big.stream();
+                start = System.nanoTime();
+                long streamSum = keys.asLongStream().sum();
+                long sumMillis = (System.nanoTime() - start) / 1_000_000;
+
+                keys = parallel ? big.stream().parallel() : big.stream();
+                start = System.nanoTime();
+                long multiples = keys.filter(v -> v % 3 == 0).count();
+                long filterMillis = (System.nanoTime() - start) / 1_000_000;
+                System.out.printf("%-10s sum %dms, filter+count %dms (iterator %dms, %b, %d)%n",
+                        parallel ? "parallel" : "sequential", sumMillis, filterMillis, iteratorMillis,
+                        sum == streamSum, multiples);
+            }
+        }
     }
 }
 
@@ -0,0 +1,218 @@
+package Datastructures;
+
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Hit, miss, eviction, expiration and load counters plus get/set latency
+ * histograms for the LRU caches in this package. Everything is recorded
+ * into LongAdders, so one instance can be shared by every thread and segment
+ * of a cache without becoming a point of contention. Monitoring reads it
+ * by polling {@link #snapshot()}.
+ *
+ * Caches start with {@link #DISABLED}. When stats are disabled they skip the
+ * clock reads completely, and the JIT inlines the remaining calls to nothing.
+ */
+public class CacheStats {
+
+  public static final CacheStats DISABLED = new CacheStats(false);
+
+  private final boolean enabled;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder loadFailures = new LongAdder();
+  private final LongAdder loadNanos = new LongAdder();
+  private final LatencyHistogram getLatency = new LatencyHistogram();
+  private final LatencyHistogram setLatency = new LatencyHistogram();
+
+  public CacheStats() {
+    this(true);
+  }
+
+  private CacheStats(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  void recordGet(boolean hit, long nanos) {
+    if(enabled){
+      (hit ? hits : misses).increment();
+      getLatency.record(nanos);
+    }
+  }
+
+  void recordSet(long nanos) {
+    if(enabled){
+      setLatency.record(nanos);
+    }
+  }
+
+  void recordEviction() {
+    if(enabled){
+      evictions.increment();
+    }
+  }
+
+  void recordExpiration() {
+    if(enabled){
+      expirations.increment();
+    }
+  }
+
+  void recordLoad(int keys, long nanos, boolean success) {
+    if(enabled){
+      (success ? loads : loadFailures).add(keys);
+      loadNanos.add(nanos);
+    }
+  }
+
+  public Snapshot snapshot() {
+    return new Snapshot(this);
+  }
+
+  // Point-in-time copy of the counters; the fields may be read while the cache keeps running.
+  public static final class Snapshot {
+    public final long hits, misses, evictions, expirations, loads, loadFailures, loadNanos;
+    public final long getP50, getP99, getMax, setP50, setP99, setMax;
+
+    private Snapshot(CacheStats stats) {
+      hits = stats.hits.sum();
+      misses = stats.misses.sum();
+      evictions = stats.evictions.sum();
+      expirations = stats.expirations.sum();
+      loads = stats.loads.sum();
+      loadFailures = stats.loadFailures.sum();
+      loadNanos = stats.loadNanos.sum();
+      long[] get = stats.getLatency.counts();
+      long[] set = stats.setLatency.counts();
+      getP50 = LatencyHistogram.percentile(get, 0.50);
+      getP99 = LatencyHistogram.percentile(get, 0.99);
+      getMax = LatencyHistogram.percentile(get, 1.0);
+      setP50 = LatencyHistogram.percentile(set, 0.50);
+      setP99 = LatencyHistogram.percentile(set, 0.99);
+      setMax = LatencyHistogram.percentile(set, 1.0);
+    }
+
+    public double hitRate() {
+      long requests = hits + misses;
+      return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("hits=%d misses=%d hitRate=%.2f%% evictions=%d expirations=%d loads=%d "
+              + "loadFailures=%d get[p50=%dns p99=%dns max=%dns] set[p50=%dns p99=%dns max=%dns]",
+          hits, misses, hitRate() * 100, evictions, expirations, loads, loadFailures,
+          getP50, getP99, getMax, setP50, setP99, setMax);
+    }
+  }
+
+  /**
+   * Log-linear histogram: each power of two is split into 8 buckets, so a
+   * recorded value is off by at most 12.5%. Values over ~18 minutes are clamped.
+   */
+  static final class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40;
+
+    private final LongAdder[] buckets = new LongAdder[indexOf(Long.MAX_VALUE) + 1];
+
+    LatencyHistogram() {
+      for(int i = 0; i < buckets.length; i++){
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    void record(long nanos) {
+      buckets[indexOf(nanos)].increment();
+    }
+
+    long[] counts() {
+      long[] counts = new long[buckets.length];
+      for(int i = 0; i < counts.length; i++){
+        counts[i] = buckets[i].sum();
+      }
+      return counts;
+    }
+
+    static int indexOf(long value) {
+      if(value < SUB_BUCKETS){
+        return (int) Math.max(value, 0);
+      }
+      int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+      if(exponent == MAX_EXPONENT){
+        value = Math.min(value, (1L << (MAX_EXPONENT + 1)) - 1);
+      }
+      int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+      return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // Smallest value that falls into bucket index.
+    static long lowerBound(int index) {
+      if(index < SUB_BUCKETS){
+        return index;
+      }
+      int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+      long sub = index % SUB_BUCKETS;
+      return (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+
+    static long percentile(long[] counts, double fraction) {
+      long total = 0;
+      for(long c : counts){
+        total += c;
+      }
+      if(total == 0){
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(total * fraction));
+      long seen = 0;
+      for(int i = 0; i < counts.length; i++){
+        seen += counts[i];
+        if(seen >= rank){
+          return lowerBound(i);
+        }
+      }
+      return lowerBound(counts.length - 1);
+    }
+  }
+
+  // Cost of the instrumentation: the same workload with stats disabled and enabled.
+  public static void main(String[] args) {
+    int capacity = 100_000;
+    int ops = 10_000_000;
+    Random random = new Random(7);
+    int[] trace = new int[ops];
+    for(int i = 0; i < ops; i++){
+      trace[i] = random.nextInt(capacity * 2);
+    }
+
+    for(int round = 0; round < 3; round++){
+      for(CacheStats stats : new CacheStats[]{DISABLED, new CacheStats()}){
+        LRUCacheDemo cache = new LRUCacheDemo(capacity);
+        cache.setStats(stats);
+        long start = System.nanoTime();
+        for(int key : trace){
+          if(cache.get(key) == -1){
+            cache.set(key, key);
+          }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-8s %.1f ns/op%n", stats.isEnabled() ? "enabled" : "disabled",
+            (double) elapsed / ops);
+        if(stats.isEnabled() && round == 2){
+          System.out.println(stats.snapshot());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package Datastructures;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Replays synthetic key traces through {@link LRUCacheDemo} with and without
+ * TinyLFU admission and prints the hit ratio of each. A miss is treated as a
+ * read-through: the caller loads the value and sets it.
+ */
+public class CacheTraceReplay {
+
+  // Zipf-distributed keys in [0, items), sampled by binary search over the CDF.
+  static int[] zipf(int items, double exponent, int length, long seed) {
+    double[] cdf = new double[items];
+    double sum = 0;
+    for(int i = 0; i < items; i++){
+      sum += 1 / Math.pow(i + 1, exponent);
+      cdf[i] = sum;
+    }
+    Random random = new Random(seed);
+    int[] trace = new int[length];
+    for(int i = 0; i < length; i++){
+      int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+      trace[i] = index >= 0 ? index : -index - 1;
+    }
+    return trace;
+  }
+
+  // Zipf traffic interrupted every scanEvery requests by a sequential scan of never-reused keys.
+  static int[] scanHeavy(int items, int length, int scanEvery, int scanLength, long seed) {
+    int[] hot = zipf(items, 0.99, length, seed);
+    int[] trace = new int[length];
+    int cold = items;
+    int h = 0;
+    for(int i = 0; i < length; ){
+      if(i % scanEvery == 0){
+        for(int j = 0; j < scanLength && i < length; j++){
+          trace[i++] = cold++;
+        }
+      }
+      if(i < length){
+        trace[i++] = hot[h++];
+      }
+    }
+    return trace;
+  }
+
+  static double hitRatio(LRUCacheDemo cache, int[] trace) {
+    long hits = 0;
+    for(int key : trace){
+      if(cache.get(key) != -1){
+        hits++;
+      } else {
+        cache.set(key, key);
+      }
+    }
+    return (double) hits / trace.length;
+  }
+
+  private static void report(String name, int[] trace, int capacity) {
+    double lru = hitRatio(new LRUCacheDemo(capacity), trace);
+    double tinyLfu = hitRatio(new LRUCacheDemo(capacity, new TinyLfuAdmission(capacity)), trace);
+    System.out.printf("%-10s capacity=%-6d LRU=%.2f%% TinyLFU=%.2f%%%n",
+        name, capacity, lru * 100, tinyLfu * 100);
+  }
+
+  public static void main(String[] args) {
+    int items = 100_000;
+    int length = 2_000_000;
+    int[] zipf = zipf(items, 0.99, length, 1);
+    int[] scan = scanHeavy(items, length, 10_000, 5_000, 2);
+
+    for(int capacity : new int[]{1_000, 5_000, 20_000}){
+      report("zipf", zipf, capacity);
+      report("scan", scan, capacity);
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package Datastructures;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Lock-striped LRU cache. The key space is split into independent segments,
+ * each one a plain {@link LRUCacheDemo} guarded by its own lock, so threads
+ * touching different keys never contend. Recency is tracked per segment, so
+ * eviction is approximately (not globally) least recently used.
+ */
+public class ConcurrentLRUCacheDemo {
+
+  private final LRUCacheDemo[] segments;
+  private final ReentrantLock[] locks;
+  private final int mask;
+
+  public ConcurrentLRUCacheDemo(int capacity) {
+    this(capacity, Runtime.getRuntime().availableProcessors() * 4);
+  }
+
+  public ConcurrentLRUCacheDemo(int capacity, int concurrencyLevel) {
+    if(capacity < 0 || concurrencyLevel <= 0){
+      throw new IllegalArgumentException("capacity must be >= 0 and concurrencyLevel > 0");
+    }
+    // Never more segments than capacity, so each one can hold at least one entry.
+    int n = 1;
+    while(n < concurrencyLevel && n < (1 << 30) && (n << 1) <= capacity){
+      n <<= 1;
+    }
+    this.mask = n - 1;
+    this.segments = new LRUCacheDemo[n];
+    this.locks = new ReentrantLock[n];
+    // Spread the remainder over the first segments so the capacities add up to exactly capacity.
+    int perSegment = capacity / n, remainder = capacity % n;
+    for(int i = 0; i < n; i++){
+      segments[i] = new LRUCacheDemo(i < remainder ? perSegment + 1 : perSegment);
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  public int get(int key) {
+    int s = segmentFor(key);
+    ReentrantLock lock = locks[s];
+    lock.lock();
+    try{
+      return segments[s].get(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // get without recording into stats.
+  int lookup(int key) {
+    int s = segmentFor(key);
+    ReentrantLock lock = locks[s];
+    lock.lock();
+    try{
+      return segments[s].lookup(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void set(int key, int value) {
+    int s = segmentFor(key);
+    ReentrantLock lock = locks[s];
+    lock.lock();
+    try{
+      segments[s].set(key, value);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Every segment records into the same stats; its LongAdders absorb the contention.
+  public void setStats(CacheStats stats) {
+    for(LRUCacheDemo segment : segments){
+      segment.setStats(stats);
+    }
+  }
+
+  public CacheStats stats() {
+    return segments[0].stats();
+  }
+
+  // Fibonacci hashing spreads sequential keys across segments.
+  private int segmentFor(int key) {
+    int h = key * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  private static long run(IntCache cache, int threads, int opsPerThread, int keySpace)
+      throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(threads);
+    // Counting hits keeps the JIT from discarding the reads.
+    LongAdder hits = new LongAdder();
+    for(int t = 0; t < threads; t++){
+      final long seed = t;
+      new Thread(() -> {
+        Random random = new Random(seed);
+        try{
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        for(int i = 0; i < opsPerThread; i++){
+          int key = random.nextInt(keySpace);
+          // 90% reads, 10% writes
+          if(random.nextInt(10) == 0){
+            cache.set(key, key);
+          } else if(cache.get(key) != -1){
+            hits.increment();
+          }
+        }
+        done.countDown();
+      }).start();
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    done.await();
+    return System.nanoTime() - begin;
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int capacity = 100_000;
+    int keySpace = 200_000;
+    int opsPerThread = 2_000_000;
+    int cores = Runtime.getRuntime().availableProcessors();
+
+    for(int threads = 1; threads <= cores; threads <<= 1){
+      LRUCacheDemo plain = new LRUCacheDemo(capacity);
+      Object globalLock = new Object();
+      IntCache synced = new IntCache() {
+        @Override
+        public int get(int key) {
+          synchronized (globalLock) {
+            return plain.get(key);
+          }
+        }
+
+        @Override
+        public void set(int key, int value) {
+          synchronized (globalLock) {
+            plain.set(key, value);
+          }
+        }
+      };
+      ConcurrentLRUCacheDemo striped = new ConcurrentLRUCacheDemo(capacity);
+      IntCache concurrent = new IntCache() {
+        @Override
+        public int get(int key) {
+          return striped.get(key);
+        }
+
+        @Override
+        public void set(int key, int value) {
+          striped.set(key, value);
+        }
+      };
+
+      long ops = (long) threads * opsPerThread;
+      long syncedNanos = run(synced, threads, opsPerThread, keySpace);
+      long stripedNanos = run(concurrent, threads, opsPerThread, keySpace);
+      System.out.printf("threads=%d synchronized=%.1f Mops/s striped=%.1f Mops/s%n",
+          threads, ops * 1e3 / syncedNanos, ops * 1e3 / stripedNanos);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package Datastructures;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Thread-safe version of {@link Trie} for many producer threads. A child slot
+ * is only ever filled by compareAndSet, so two threads racing to create the
+ * same node agree on a single winner. Neither inserts nor lookups take a
+ * lock. An insert takes effect at the volatile write of isEnd, after its
+ * whole path is reachable, so a search that sees the word also sees every
+ * node leading to it.
+ */
+public class ConcurrentTrie {
+
+    private static final class Node {
+        final AtomicReferenceArray<Node> children = new AtomicReferenceArray<>(26);
+        volatile boolean isEnd;
+    }
+
+    private final Node root = new Node();
+
+    // Inserts a word into the trie.
+    public void insert(String word) {
+        Node node = root;
+
+        for (int i = 0; i < word.length(); i++) {
+            int index = word.charAt(i) - 'a';
+            Node child = node.children.get(index);
+            if (child == null) {
+                Node created = new Node();
+                // Losing the race is fine: continue down the winner's node.
+                child = node.children.compareAndSet(index, null, created) ? created : node.children.get(index);
+            }
+            node = child;
+        }
+
+        node.isEnd = true;
+    }
+
+    // Returns if the word is in the trie.
+    public boolean search(String word) {
+        Node node = searchNode(word);
+        return node != null && node.isEnd;
+    }
+
+    // Returns if there is any word in the trie that starts with the given prefix.
+    public boolean startsWith(String prefix) {
+        return searchNode(prefix) != null;
+    }
+
+    private Node searchNode(String s) {
+        Node node = root;
+
+        for (int i = 0; i < s.length() && node != null; i++) {
+            node = node.children.get(s.charAt(i) - 'a');
+        }
+
+        return node == root ? null : node;
+    }
+
+    private static String[] words(int count, long seed) {
+        Random random = new Random(seed);
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = 3 + random.nextInt(10);
+            StringBuilder sb = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = sb.toString();
+        }
+        return words;
+    }
+
+    // Runs insert over words split evenly across threads and returns the elapsed nanos.
+    private static long ingest(String[] words, int threads, Consumer<String> insert)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = id; i < words.length; i += threads) {
+                        insert.accept(words[i]);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        String[] words = words(count, 19);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; threads <= cores; threads <<= 1) {
+            Trie locked = new Trie();
+            long lockedNanos = ingest(words, threads, w -> {
+                synchronized (locked) {
+                    locked.insert(w);
+                }
+            });
+            ConcurrentTrie concurrent = new ConcurrentTrie();
+            long concurrentNanos = ingest(words, threads, concurrent::insert);
+
+            int missing = 0;
+            for (String w : words) {
+                if (!concurrent.search(w)) missing++;
+            }
+            System.out.printf("threads=%d synchronized Trie %.2f M inserts/s, ConcurrentTrie %.2f M inserts/s, missing=%d%n",
+                    threads, count * 1e3 / lockedNanos, count * 1e3 / concurrentNanos, missing);
+        }
+    }
+}
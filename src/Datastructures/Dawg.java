@@ -0,0 +1,470 @@
+package Datastructures;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Minimal acyclic automaton (DAWG) over the UTF-8 bytes of each word. A
+ * {@link Trie} only shares prefixes; here any two states with the same set
+ * of suffixes are merged as well, so "walking", "talking" and "stalking"
+ * share their "alking" tail. The words are added in sorted order and each
+ * finished branch is merged into a register of unique states straight away
+ * (Daciuk et al.), so the unminimized trie never exists in memory.
+ *
+ * The result is packed into one byte array. A state is a flags byte, a
+ * varint arc count, its sorted labels, and then fixed width fields per arc,
+ * sized for that state: the distance back to the target state and, with
+ * outputs, how many words sort before the arc. Adding those up along the
+ * path gives a word's index in sorted order, which selects its output, so
+ * outputs do not get in the way of merging states (an FST).
+ *
+ * search and startsWith follow {@link Trie}: the empty string is never found.
+ */
+public class Dawg {
+
+    private static final int FINAL = 1;
+
+    private final byte[] data;
+    private final int root;
+    private final int[] outputs;
+    private final int size;
+
+    private Dawg(byte[] data, int root, int[] outputs, int size) {
+        this.data = data;
+        this.root = root;
+        this.outputs = outputs;
+        this.size = size;
+    }
+
+    // Copies the words of trie, which are already in sorted order.
+    public static Dawg of(Trie trie) {
+        List<String> words = new ArrayList<>();
+        trie.forEach(words::add);
+        return build(words);
+    }
+
+    /**
+     * Builds the automaton for words. The words should be sorted by their
+     * UTF-8 bytes; if they are not, they are sorted here first. Duplicates
+     * are ignored.
+     */
+    public static Dawg build(Iterable<String> words) {
+        List<String> list = new ArrayList<>();
+        for (String w : words) {
+            list.add(w);
+        }
+        return build(list, null);
+    }
+
+    // Same, with outputs[i] returned by get for words.get(i). A duplicate keeps its first output.
+    public static Dawg build(List<String> words, int[] outputs) {
+        if (outputs != null && outputs.length != words.size()) {
+            throw new IllegalArgumentException(words.size() + " words but " + outputs.length + " outputs");
+        }
+        byte[][] sorted = new byte[words.size()][];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = words.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        Integer[] order = new Integer[sorted.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = 1; i < sorted.length; i++) {
+            if (compare(sorted[i - 1], sorted[i]) > 0) {
+                // Stable, so the first of several duplicates comes first.
+                Arrays.sort(order, (a, b) -> compare(sorted[a], sorted[b]));
+                break;
+            }
+        }
+
+        Builder builder = new Builder();
+        int[] kept = new int[sorted.length];
+        int count = 0;
+        byte[] previous = null;
+        for (int i : order) {
+            if (previous != null && compare(previous, sorted[i]) == 0) {
+                continue;
+            }
+            builder.add(sorted[i]);
+            kept[count++] = outputs == null ? 0 : outputs[i];
+            previous = sorted[i];
+        }
+        return builder.pack(outputs == null ? null : Arrays.copyOf(kept, count), count);
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            int c = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    // Number of distinct words.
+    public int size() {
+        return size;
+    }
+
+    // Bytes used by the packed automaton and the outputs.
+    public long sizeInBytes() {
+        return data.length + (outputs == null ? 0 : 4L * outputs.length);
+    }
+
+    // Returns if the word is in the automaton.
+    public boolean search(String word) {
+        long cursor = word.isEmpty() ? -1 : walk(word);
+        return cursor >= 0 && (data[(int) cursor] & FINAL) != 0;
+    }
+
+    // Returns if there is any word in the automaton that starts with the given prefix.
+    public boolean startsWith(String prefix) {
+        // Every state leads to at least one final state, so reaching one is enough.
+        return !prefix.isEmpty() && walk(prefix) >= 0;
+    }
+
+    // Returns the output stored for word, or missing if the word is absent.
+    public int get(String word, int missing) {
+        if (outputs == null) {
+            throw new IllegalStateException("built without outputs");
+        }
+        long cursor = word.isEmpty() ? -1 : walk(word);
+        if (cursor < 0 || (data[(int) cursor] & FINAL) == 0) {
+            return missing;
+        }
+        return outputs[(int) (cursor >>> 32)];
+    }
+
+    /**
+     * Follows the UTF-8 encoding of s without allocating. The cursor holds the
+     * state's offset in the low half and the number of words that sort before
+     * the path so far in the high half; -1 once there is no transition.
+     */
+    private long walk(String s) {
+        long cursor = root;
+        for (int i = 0; i < s.length() && cursor >= 0; ) {
+            int cp = s.codePointAt(i);
+            i += Character.charCount(cp);
+            if (cp < 0x80) {
+                cursor = next(cursor, cp);
+            } else if (cp < 0x800) {
+                cursor = next(next(cursor, 0xC0 | (cp >> 6)), 0x80 | (cp & 0x3F));
+            } else if (cp < 0x10000) {
+                if (Character.isSurrogate((char) cp)) {
+                    // Unpaired surrogates are encoded as '?', the same as String.getBytes.
+                    cursor = next(cursor, '?');
+                } else {
+                    cursor = next(next(next(cursor, 0xE0 | (cp >> 12)), 0x80 | ((cp >> 6) & 0x3F)),
+                            0x80 | (cp & 0x3F));
+                }
+            } else {
+                cursor = next(next(next(next(cursor, 0xF0 | (cp >> 18)), 0x80 | ((cp >> 12) & 0x3F)),
+                        0x80 | ((cp >> 6) & 0x3F)), 0x80 | (cp & 0x3F));
+            }
+        }
+        return cursor;
+    }
+
+    private long next(long cursor, int b) {
+        if (cursor < 0) {
+            return -1;
+        }
+        byte[] data = this.data;
+        int state = (int) cursor;
+        int flags = data[state];
+        int p = state + 1;
+        int arcs = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte x = data[p++];
+            arcs |= (x & 0x7F) << shift;
+            if (x >= 0) {
+                break;
+            }
+        }
+
+        int low = 0, high = arcs - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int label = data[p + mid] & 0xFF;
+            if (label < b) {
+                low = mid + 1;
+            } else if (label > b) {
+                high = mid - 1;
+            } else {
+                int targetWidth = ((flags >> 1) & 3) + 1;
+                int target = state - read(data, p + arcs + mid * targetWidth, targetWidth);
+                long before = cursor >>> 32;
+                if (outputs != null) {
+                    int skipWidth = ((flags >> 3) & 3) + 1;
+                    before += read(data, p + arcs * (1 + targetWidth) + mid * skipWidth, skipWidth);
+                }
+                return before << 32 | target;
+            }
+        }
+        return -1;
+    }
+
+    private static int read(byte[] data, int p, int width) {
+        int v = 0;
+        for (int k = 0; k < width; k++) {
+            v |= (data[p + k] & 0xFF) << (8 * k);
+        }
+        return v;
+    }
+
+    private static final class State {
+        byte[] labels = new byte[2];
+        State[] targets = new State[2];
+        int arcs;
+        boolean isFinal;
+        // Number of words accepted from here; set when the state is registered.
+        int words;
+        int offset = -1;
+
+        void addArc(byte label, State target) {
+            if (arcs == labels.length) {
+                labels = Arrays.copyOf(labels, arcs * 2);
+                targets = Arrays.copyOf(targets, arcs * 2);
+            }
+            labels[arcs] = label;
+            targets[arcs++] = target;
+        }
+
+        // Two states are equal if they accept the same suffixes. Targets are
+        // already unique, so comparing them by identity is enough.
+        @Override
+        public boolean equals(Object o) {
+            State other = (State) o;
+            if (isFinal != other.isFinal || arcs != other.arcs) {
+                return false;
+            }
+            for (int i = 0; i < arcs; i++) {
+                if (labels[i] != other.labels[i] || targets[i] != other.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = isFinal ? 1 : 0;
+            for (int i = 0; i < arcs; i++) {
+                h = h * 31 + labels[i];
+                h = h * 31 + System.identityHashCode(targets[i]);
+            }
+            return h;
+        }
+    }
+
+    private static final class Builder {
+        final Map<State, State> register = new HashMap<>();
+        // Unique states in the order they were registered, so every target comes before its source.
+        final List<State> unique = new ArrayList<>();
+        State[] path = new State[16];
+        byte[] previous = new byte[0];
+
+        Builder() {
+            path[0] = new State();
+        }
+
+        void add(byte[] word) {
+            int common = 0;
+            while (common < word.length && common < previous.length && word[common] == previous[common]) {
+                common++;
+            }
+            // The previous word's branch below the shared prefix can no longer change.
+            minimize(common);
+
+            if (word.length >= path.length) {
+                path = Arrays.copyOf(path, Math.max(path.length * 2, word.length + 1));
+            }
+            for (int d = common; d < word.length; d++) {
+                State s = new State();
+                path[d].addArc(word[d], s);
+                path[d + 1] = s;
+            }
+            path[word.length].isFinal = true;
+            previous = word;
+        }
+
+        // Replaces each state below depth with an equal registered one, deepest first.
+        private void minimize(int depth) {
+            for (int d = previous.length; d > depth; d--) {
+                State s = path[d];
+                State existing = register.get(s);
+                if (existing != null) {
+                    path[d - 1].targets[path[d - 1].arcs - 1] = existing;
+                } else {
+                    register(s);
+                }
+            }
+        }
+
+        private void register(State s) {
+            s.words = s.isFinal ? 1 : 0;
+            for (int i = 0; i < s.arcs; i++) {
+                s.words += s.targets[i].words;
+            }
+            register.put(s, s);
+            unique.add(s);
+        }
+
+        Dawg pack(int[] outputs, int count) {
+            minimize(0);
+            State root = path[0];
+            register(root);
+
+            byte[] out = new byte[1024];
+            int size = 0;
+            for (State s : unique) {
+                s.offset = size;
+                int targetWidth = 1, skipWidth = 1;
+                for (int i = 0, before = s.isFinal ? 1 : 0; i < s.arcs; before += s.targets[i++].words) {
+                    targetWidth = Math.max(targetWidth, width(size - s.targets[i].offset));
+                    skipWidth = Math.max(skipWidth, width(before));
+                }
+                int bytes = 6 + s.arcs * (1 + targetWidth + (outputs == null ? 0 : skipWidth));
+                if (size + bytes > out.length) {
+                    out = Arrays.copyOf(out, Math.max(out.length * 2, size + bytes));
+                }
+
+                out[size++] = (byte) ((s.isFinal ? FINAL : 0) | (targetWidth - 1) << 1 | (skipWidth - 1) << 3);
+                for (int n = s.arcs; ; n >>>= 7) {
+                    if (n < 0x80) {
+                        out[size++] = (byte) n;
+                        break;
+                    }
+                    out[size++] = (byte) (n | 0x80);
+                }
+                System.arraycopy(s.labels, 0, out, size, s.arcs);
+                size += s.arcs;
+                for (int i = 0; i < s.arcs; i++) {
+                    size = write(out, size, s.offset - s.targets[i].offset, targetWidth);
+                }
+                if (outputs != null) {
+                    for (int i = 0, before = s.isFinal ? 1 : 0; i < s.arcs; before += s.targets[i++].words) {
+                        size = write(out, size, before, skipWidth);
+                    }
+                }
+            }
+            return new Dawg(Arrays.copyOf(out, size), root.offset, outputs, count);
+        }
+
+        private static int width(int value) {
+            return value < 1 << 8 ? 1 : value < 1 << 16 ? 2 : value < 1 << 24 ? 3 : 4;
+        }
+
+        private static int write(byte[] out, int p, int value, int width) {
+            for (int k = 0; k < width; k++) {
+                out[p++] = (byte) (value >>> (8 * k));
+            }
+            return p;
+        }
+    }
+
+    // English-like vocabulary: stems with the usual prefixes and inflections, so suffixes repeat.
+    private static TreeSet<String> generated(int stems, Random random) {
+        String[] onsets = {"b", "br", "c", "ch", "d", "f", "g", "gr", "h", "l", "m", "n", "p", "pl", "r", "s", "st", "t", "tr", "w"};
+        String[] vowels = {"a", "e", "i", "o", "u", "ea", "ou"};
+        String[] codas = {"", "n", "r", "t", "ck", "ll", "nd", "st", "rk", "mp"};
+        String[] prefixes = {"", "", "", "un", "re", "pre", "dis", "over"};
+        String[] suffixes = {"", "s", "ed", "ing", "er", "ers", "ly", "ness", "able", "ment", "ments"};
+        TreeSet<String> words = new TreeSet<>();
+        for (int i = 0; i < stems; i++) {
+            StringBuilder stem = new StringBuilder();
+            for (int syllables = 1 + random.nextInt(3); syllables > 0; syllables--) {
+                stem.append(onsets[random.nextInt(onsets.length)]).append(vowels[random.nextInt(vowels.length)])
+                        .append(codas[random.nextInt(codas.length)]);
+            }
+            String prefix = prefixes[random.nextInt(prefixes.length)];
+            for (String suffix : suffixes) {
+                if (random.nextInt(3) > 0) {
+                    words.add(prefix + stem + suffix);
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Compression on a word list. Pass a file with one word per line (for
+     * example /usr/share/dict/words); without one a generated English-like
+     * list is used. Only lowercase a-z words are kept, since that is all
+     * {@link Trie} stores.
+     */
+    public static void main(String[] args) throws IOException {
+        TreeSet<String> words = new TreeSet<>();
+        if (args.length > 0) {
+            for (String line : Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+                if (!line.isEmpty() && line.chars().allMatch(c -> c >= 'a' && c <= 'z')) {
+                    words.add(line);
+                }
+            }
+        } else {
+            words = generated(100_000, new Random(19));
+        }
+        long chars = 0;
+        for (String w : words) {
+            chars += w.length() + 1;
+        }
+
+        long before = Benchmarks.usedHeap();
+        Trie trie = new Trie();
+        for (String w : words) {
+            trie.insert(w);
+        }
+        long trieBytes = Benchmarks.usedHeap() - before;
+
+        long start = System.nanoTime();
+        Dawg dawg = of(trie);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%d words, %dKB of text: Trie %dKB, Dawg %dKB built in %dms (%.0fx smaller than Trie, %.1fx smaller than the text)%n",
+                words.size(), chars >> 10, trieBytes >> 10, dawg.sizeInBytes() >> 10, buildMillis,
+                (double) trieBytes / dawg.sizeInBytes(), (double) chars / dawg.sizeInBytes());
+
+        // Outputs: each word's length, stored alongside the automaton.
+        List<String> list = new ArrayList<>(words);
+        int[] lengths = new int[list.size()];
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = list.get(i).length();
+        }
+        Dawg fst = build(list, lengths);
+        System.out.printf("with outputs: %dKB, get(\"%s\") = %d%n",
+                fst.sizeInBytes() >> 10, list.get(list.size() / 2), fst.get(list.get(list.size() / 2), -1));
+
+        String[] probes = list.toArray(new String[0]);
+        for (int i = 0; i < probes.length; i += 2) {
+            probes[i] = probes[i] + "q";
+        }
+        for (int round = 0; round < 3; round++) {
+            int diff = 0;
+            start = System.nanoTime();
+            for (String p : probes) {
+                if (trie.search(p)) diff++;
+            }
+            long trieNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (String p : probes) {
+                if (dawg.search(p)) diff--;
+            }
+            long dawgNanos = System.nanoTime() - start;
+            System.out.printf("search: Trie %.0f ns, Dawg %.0f ns (diff %d)%n",
+                    (double) trieNanos / probes.length, (double) dawgNanos / probes.length, diff);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package Datastructures;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Frozen double-array trie over the UTF-8 bytes of each word. A transition
+ * from state s on byte b goes to t = BASE[s] + b + 1, and it exists only if
+ * CHECK[t] == s. Label 0 marks the end of a word. The builder writes BASE
+ * and CHECK to a file. {@link #open(Path)} maps that file and queries it
+ * in place, so opening costs the same for any dictionary size.
+ *
+ * search and startsWith follow {@link Trie}: the empty string is never found.
+ */
+public class DoubleArrayTrie {
+
+    private static final int MAGIC = 0x44415431; // "DAT1"
+    private static final int HEADER_BYTES = 8;
+    private static final int ROOT = 0;
+    private static final int FREE = -1;
+
+    private final IntBuffer base;
+    private final IntBuffer check;
+    private final int size;
+
+    private DoubleArrayTrie(ByteBuffer buffer, int size) {
+        this.size = size;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(HEADER_BYTES);
+        IntBuffer ints = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        ints.limit(size);
+        this.base = ints.slice();
+        ints.limit(2 * size).position(size);
+        this.check = ints.slice();
+    }
+
+    // Maps a file written by build. Nothing is read until the first query.
+    public static DoubleArrayTrie open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("not a double-array trie: " + file);
+            }
+            int size = buffer.getInt(4);
+            if (channel.size() != HEADER_BYTES + 8L * size) {
+                throw new IOException("truncated double-array trie: " + file);
+            }
+            return new DoubleArrayTrie(buffer, size);
+        }
+    }
+
+    // Returns if the word is in the trie.
+    public boolean search(String word) {
+        int s = walk(word);
+        if (s <= ROOT) {
+            return false;
+        }
+        int t = base.get(s);
+        return t < size && check.get(t) == s;
+    }
+
+    // Returns if there is any word in the trie that starts with the given prefix.
+    public boolean startsWith(String prefix) {
+        return walk(prefix) > ROOT;
+    }
+
+    // Follows the UTF-8 encoding of s without allocating; returns the state reached, or -1.
+    private int walk(String s) {
+        int state = ROOT;
+        for (int i = 0; i < s.length() && state >= 0; ) {
+            int cp = s.codePointAt(i);
+            i += Character.charCount(cp);
+            if (cp < 0x80) {
+                state = next(state, cp);
+            } else if (cp < 0x800) {
+                state = next(next(state, 0xC0 | (cp >> 6)), 0x80 | (cp & 0x3F));
+            } else if (cp < 0x10000) {
+                if (Character.isSurrogate((char) cp)) {
+                    // Unpaired surrogates are encoded as '?', the same as String.getBytes.
+                    state = next(state, '?');
+                } else {
+                    state = next(next(next(state, 0xE0 | (cp >> 12)), 0x80 | ((cp >> 6) & 0x3F)),
+                            0x80 | (cp & 0x3F));
+                }
+            } else {
+                state = next(next(next(next(state, 0xF0 | (cp >> 18)), 0x80 | ((cp >> 12) & 0x3F)),
+                        0x80 | ((cp >> 6) & 0x3F)), 0x80 | (cp & 0x3F));
+            }
+        }
+        return state;
+    }
+
+    private int next(int state, int b) {
+        if (state < 0) {
+            return -1;
+        }
+        int t = base.get(state) + b + 1;
+        return t < size && check.get(t) == state ? t : -1;
+    }
+
+    /**
+     * Builds the arrays for words and writes them to file. The words should be
+     * sorted by their UTF-8 bytes; if they are not, they are sorted here first.
+     * Duplicates are ignored.
+     */
+    public static void build(Iterable<String> words, Path file) throws IOException {
+        List<byte[]> list = new ArrayList<>();
+        for (String w : words) {
+            list.add(w.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[][] sorted = list.toArray(new byte[0][]);
+        for (int i = 1; i < sorted.length; i++) {
+            if (compare(sorted[i - 1], sorted[i]) > 0) {
+                Arrays.sort(sorted, DoubleArrayTrie::compare);
+                break;
+            }
+        }
+
+        Builder builder = new Builder();
+        builder.build(sorted);
+        builder.write(file);
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            int c = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    private static final class Builder {
+        int[] base = new int[1024];
+        int[] check = new int[1024];
+        int size = 1;
+        // Every slot below this index is taken.
+        int nextFree = 1;
+
+        Builder() {
+            Arrays.fill(check, FREE);
+            check[ROOT] = -2;
+        }
+
+        void build(byte[][] words) {
+            // Explicit stack of {state, lo, hi, depth}, so deep words cannot overflow the call stack.
+            int[][] stack = new int[16][];
+            int top = 0;
+            stack[top++] = new int[]{ROOT, 0, words.length, 0};
+            int[] codes = new int[257];
+            int[] starts = new int[258];
+
+            while (top > 0) {
+                int[] frame = stack[--top];
+                int state = frame[0], lo = frame[1], hi = frame[2], depth = frame[3];
+
+                int n = 0;
+                for (int i = lo; i < hi; ) {
+                    int code = code(words[i], depth);
+                    codes[n] = code;
+                    starts[n++] = i;
+                    while (i < hi && code(words[i], depth) == code) {
+                        i++;
+                    }
+                }
+                starts[n] = hi;
+                if (n == 0) {
+                    continue;
+                }
+
+                int b = findBase(codes, n);
+                base[state] = b;
+                for (int k = 0; k < n; k++) {
+                    int t = b + codes[k];
+                    check[t] = state;
+                    size = Math.max(size, t + 1);
+                    if (codes[k] != 0) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = new int[]{t, starts[k], starts[k + 1], depth + 1};
+                    }
+                }
+                while (nextFree < check.length && check[nextFree] != FREE) {
+                    nextFree++;
+                }
+            }
+        }
+
+        private static int code(byte[] word, int depth) {
+            return depth == word.length ? 0 : (word[depth] & 0xFF) + 1;
+        }
+
+        // First base at or after the free frontier where every child slot is free.
+        private int findBase(int[] codes, int n) {
+            int pos = Math.max(nextFree, codes[0] + 1);
+            while (true) {
+                int b = pos - codes[0];
+                ensure(b + 258);
+                boolean fits = true;
+                for (int k = 0; k < n && fits; k++) {
+                    fits = check[b + codes[k]] == FREE;
+                }
+                if (fits) {
+                    return b;
+                }
+                do {
+                    pos++;
+                    ensure(pos + 1);
+                } while (check[pos] != FREE);
+            }
+        }
+
+        private void ensure(int capacity) {
+            if (capacity <= check.length) {
+                return;
+            }
+            int grown = Math.max(capacity, check.length + (check.length >> 1));
+            int old = check.length;
+            base = Arrays.copyOf(base, grown);
+            check = Arrays.copyOf(check, grown);
+            Arrays.fill(check, old, grown, FREE);
+        }
+
+        void write(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + 8L * size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(MAGIC).putInt(size);
+                buffer.asIntBuffer().put(base, 0, size).put(check, 0, size);
+                buffer.force();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(13);
+        TreeSet<String> words = new TreeSet<>();
+        while (words.size() < count) {
+            int length = 4 + random.nextInt(10);
+            StringBuilder sb = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                int r = random.nextInt(26);
+                sb.append((char) ('a' + r * r / 26));
+            }
+            words.add(sb.toString());
+        }
+        String[] probes = words.toArray(new String[0]);
+        for (int i = 0; i < probes.length; i += 2) {
+            probes[i] = probes[i] + "q";
+        }
+
+        Path file = Files.createTempFile("dictionary", ".dat");
+        long start = System.nanoTime();
+        build(words, file);
+        System.out.printf("build %d words: %dms, file %dMB%n", count,
+                (System.nanoTime() - start) / 1_000_000, Files.size(file) >> 20);
+
+        start = System.nanoTime();
+        DoubleArrayTrie dat = open(file);
+        System.out.printf("open: %dus%n", (System.nanoTime() - start) / 1_000);
+
+        Trie trie = new Trie();
+        for (String w : words) {
+            trie.insert(w);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            int diff = 0;
+            start = System.nanoTime();
+            for (String p : probes) {
+                if (trie.search(p)) diff++;
+            }
+            long trieNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (String p : probes) {
+                if (dat.search(p)) diff--;
+            }
+            long datNanos = System.nanoTime() - start;
+            System.out.printf("search: Trie %.0f ns, DoubleArrayTrie %.0f ns (diff %d)%n",
+                    (double) trieNanos / probes.length, (double) datNanos / probes.length, diff);
+        }
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,72 @@
+package Datastructures;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Count-min sketch of 4-bit counters packed sixteen to a long. Each key maps
+ * to one counter in each of four rows and its estimate is the minimum of the
+ * four. After {@code 10 * maximumSize} increments every counter is halved,
+ * so the sketch ages out keys that were popular a long time ago.
+ */
+public class FrequencySketch {
+
+  private static final int[] SEEDS = {0x97CB3127, 0xB0D8F3E5, 0x5A8E7F3D, 0x3C6EF372};
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private final long[] table;
+  private final int counterMask;
+  private final int sampleSize;
+  private int additions;
+
+  public FrequencySketch(int maximumSize) {
+    int counters = 16;
+    while(counters < (long) maximumSize * 4 && counters < (1 << 30)){
+      counters <<= 1;
+    }
+    table = new long[counters >>> 4];
+    counterMask = counters - 1;
+    sampleSize = (int) Math.min(Math.max(10L * maximumSize, 10), Integer.MAX_VALUE);
+  }
+
+  public int frequency(int key) {
+    int min = 15;
+    for(int i = 0; i < SEEDS.length; i++){
+      int counter = indexOf(key, i);
+      int value = (int) ((table[counter >>> 4] >>> ((counter & 15) << 2)) & 0xF);
+      min = Math.min(min, value);
+    }
+    return min;
+  }
+
+  public void increment(int key) {
+    boolean added = false;
+    for(int i = 0; i < SEEDS.length; i++){
+      int counter = indexOf(key, i);
+      int word = counter >>> 4;
+      int shift = (counter & 15) << 2;
+      if(((table[word] >>> shift) & 0xF) != 0xF){
+        table[word] += 1L << shift;
+        added = true;
+      }
+    }
+    if(added && ++additions == sampleSize){
+      reset();
+    }
+  }
+
+  // Halve every counter at once; the mask drops the bit shifted in from the neighbour.
+  private void reset() {
+    for(int i = 0; i < table.length; i++){
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    additions >>>= 1;
+  }
+
+  private int indexOf(int key, int row) {
+    int h = (key + SEEDS[row]) * 0x9E3779B9;
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    return h & counterMask;
+  }
+}
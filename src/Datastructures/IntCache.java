@@ -0,0 +1,14 @@
+package Datastructures;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * The int-to-int get/set the cache benchmarks drive, so one loop can time
+ * different caches.
+ */
+interface IntCache {
+
+  int get(int key);
+
+  void set(int key, int value);
+}
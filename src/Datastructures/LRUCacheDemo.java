@@ -1,16 +1,25 @@
 package Datastructures;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 /**
  * Created by Naren on 5/22/17.
  */
 public class LRUCacheDemo {
 
-  private class Node {
+  private class Node extends TimerWheel.Timer {
     int key, value;
     Node prev, next;
+    // Position in recency order: set from a counter each time the node moves to the head.
+    long stamp;
+    // Epoch of the last capture that copied this node, or that it was created during.
+    int captured;
     Node(int k, int v){
       this.key = k;
       this.value = v;
@@ -20,12 +29,120 @@ public class LRUCacheDemo {
     }
   }
 
+  private static final long NO_EXPIRY = -1;
+
   private int capacity, count;
   private Map<Integer, Node> map;
   private Node head, tail;
+  private final AdmissionPolicy policy;
+  private final LongSupplier ticker;
+  private final TimerWheel<Node> wheel;
+  private CacheStats stats = CacheStats.DISABLED;
+  private long clock, restoreClock;
+  private Capture capture;
+  private int captureEpoch;
+
+  /**
+   * Point-in-time copy of the entries without a TTL, taken a few entries at
+   * a time by the cache's own get and set calls, so no single call pays
+   * for a walk of the whole cache. Entries are copied in list order as the
+   * walk reaches them. An entry that is about to move, change or leave the
+   * list before the walk gets there is copied first, with its stamp, and
+   * merged back into place at the end. The result is the contents and
+   * recency order at the moment the capture began.
+   */
+  static final class Capture {
+    private final int epoch, step;
+    private final Consumer<Capture> onDone;
+    private Node cursor;
+    // Copied by the walk, in list order.
+    private final Run walked = new Run();
+    // Copied ahead of the walk, in no particular order.
+    private final Run early = new Run();
+
+    private Capture(int epoch, int step, Node cursor, Consumer<Capture> onDone) {
+      this.epoch = epoch;
+      this.step = step;
+      this.cursor = cursor;
+      this.onDone = onDone;
+    }
+
+    // {keys, values}, most recent first. Meant for the thread that writes the snapshot, not the cache's.
+    int[][] entries() {
+      Integer[] order = new Integer[early.size];
+      for(int i = 0; i < order.length; i++){
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> Long.compare(early.stamp(b), early.stamp(a)));
+      // Both runs are in descending stamp order, so one merge restores the original order.
+      int total = walked.size + early.size;
+      int[] keys = new int[total];
+      int[] values = new int[total];
+      for(int i = 0, w = 0, e = 0; i < total; i++){
+        if(e == order.length || (w < walked.size && walked.stamp(w) > early.stamp(order[e]))){
+          keys[i] = walked.key(w);
+          values[i] = walked.value(w++);
+        }
+        else{
+          keys[i] = early.key(order[e]);
+          values[i] = early.value(order[e++]);
+        }
+      }
+      return new int[][]{keys, values};
+    }
+  }
+
+  // Entries appended in fixed size blocks, so no append ever copies what is already there.
+  private static final class Run {
+    private static final int BLOCK = 1 << 12;
+    private int[][] keys = new int[16][], values = new int[16][];
+    private long[][] stamps = new long[16][];
+    private int size;
+
+    void add(Node n) {
+      int b = size / BLOCK, i = size % BLOCK;
+      if(i == 0){
+        if(b == keys.length){
+          keys = Arrays.copyOf(keys, b * 2);
+          values = Arrays.copyOf(values, b * 2);
+          stamps = Arrays.copyOf(stamps, b * 2);
+        }
+        keys[b] = new int[BLOCK];
+        values[b] = new int[BLOCK];
+        stamps[b] = new long[BLOCK];
+      }
+      keys[b][i] = n.key;
+      values[b][i] = n.value;
+      stamps[b][i] = n.stamp;
+      size++;
+    }
+
+    int key(int i) {
+      return keys[i / BLOCK][i % BLOCK];
+    }
+
+    int value(int i) {
+      return values[i / BLOCK][i % BLOCK];
+    }
+
+    long stamp(int i) {
+      return stamps[i / BLOCK][i % BLOCK];
+    }
+  }
 
   public LRUCacheDemo(int capacity) {
+    this(capacity, AdmissionPolicy.ALWAYS);
+  }
+
+  public LRUCacheDemo(int capacity, AdmissionPolicy policy) {
+    this(capacity, policy, System::nanoTime);
+  }
+
+  public LRUCacheDemo(int capacity, AdmissionPolicy policy, LongSupplier ticker) {
     this.capacity = capacity;
+    this.policy = policy;
+    this.ticker = ticker;
+    this.wheel = new TimerWheel<>(ticker.getAsLong(), this::expire);
     this.count = 0;
     map = new HashMap<>();
     head = new Node();
@@ -35,39 +152,214 @@ public class LRUCacheDemo {
   }
 
   public int get(int key) {
+    CacheStats s = stats;
+    if(!s.isEnabled()){
+      return lookup(key);
+    }
+    long start = System.nanoTime();
+    int value = lookup(key);
+    s.recordGet(value != -1, System.nanoTime() - start);
+    return value;
+  }
+
+  // get without recording into stats, for callers re-checking a miss they already counted.
+  int lookup(int key) {
+    if(capture != null){
+      captureStep(capture.step);
+    }
+    policy.record(key);
+    long now = expireEntries();
     Node n = map.get(key);
     if(n == null){
       return -1;
     }
+    // The wheel only fires once per tick, so check the deadline of the entry itself.
+    if(n.isScheduled() && n.deadline - now <= 0){
+      expire(n);
+      return -1;
+    }
     update(n);
     return n.value;
   }
 
   public void set(int key, int value) {
+    put(key, value, NO_EXPIRY);
+  }
+
+  // Sets the value and expires the entry once ttl has elapsed.
+  public void set(int key, int value, long ttl, TimeUnit unit) {
+    long ttlNanos = unit.toNanos(ttl);
+    if(ttlNanos <= 0){
+      Node n = map.get(key);
+      if(n != null){
+        evict(n);
+      }
+      return;
+    }
+    put(key, value, ttlNanos);
+  }
+
+  private void put(int key, int value, long ttlNanos) {
+    CacheStats s = stats;
+    if(!s.isEnabled()){
+      putEntry(key, value, ttlNanos);
+      return;
+    }
+    long start = System.nanoTime();
+    putEntry(key, value, ttlNanos);
+    s.recordSet(System.nanoTime() - start);
+  }
+
+  private void putEntry(int key, int value, long ttlNanos) {
+    if(capture != null){
+      captureStep(capture.step);
+    }
+    policy.record(key);
+    long now = expireEntries();
     Node n = map.get(key);
     if(n == null){
+      // When full, the policy may keep the victim and drop the new key instead.
+      if(count >= capacity && count > 0 && !policy.admit(key, tail.prev.key)){
+        return;
+      }
       n = new Node(key, value);
+      n.captured = captureEpoch;
       map.put(key, n);
       add(n);
       ++count;
     }
     else{
+      preserve(n);
       n.value = value;
       update(n);
     }
+    if(ttlNanos == NO_EXPIRY){
+      wheel.deschedule(n);
+    }
+    else{
+      n.deadline = (now == 0 ? ticker.getAsLong() : now) + ttlNanos;
+      wheel.schedule(n);
+    }
     if(count>capacity){
-      Node toDel = tail.prev;
-      remove(toDel);
-      map.remove(toDel.key);
-      --count;
+      evict(tail.prev);
+      stats.recordEviction();
+    }
+  }
+
+  public int size() {
+    return count;
+  }
+
+  // Starts recording into stats; pass CacheStats.DISABLED to stop.
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+  }
+
+  public CacheStats stats() {
+    return stats;
+  }
+
+  /**
+   * Starts copying the entries without a TTL, a step of them per get or set,
+   * and passes the capture to onDone once the walk reaches the end. TTL
+   * deadlines are relative to this JVM's clock, so they cannot be carried
+   * across a restart.
+   */
+  void beginCapture(int step, Consumer<Capture> onDone){
+    if(capture != null){
+      throw new IllegalStateException("a capture is already in progress");
+    }
+    capture = new Capture(++captureEpoch, step, head.next, onDone);
+    captureStep(0);
+  }
+
+  // Runs the rest of any capture in progress now, on the calling thread.
+  void finishCapture(){
+    if(capture != null){
+      captureStep(Integer.MAX_VALUE);
+    }
+  }
+
+  private void captureStep(int budget){
+    Capture c = capture;
+    Node n = c.cursor;
+    for(; n != tail && budget > 0; n = n.next, budget--){
+      if(n.captured != c.epoch){
+        n.captured = c.epoch;
+        if(!n.isScheduled()){
+          c.walked.add(n);
+        }
+      }
+    }
+    c.cursor = n;
+    if(n == tail){
+      capture = null;
+      c.onDone.accept(c);
+    }
+  }
+
+  // Copies node as it is now if a capture in progress has not reached it yet.
+  private void preserve(Node node){
+    Capture c = capture;
+    if(c != null && node.captured != c.epoch){
+      node.captured = c.epoch;
+      if(!node.isScheduled()){
+        c.early.add(node);
+      }
+    }
+  }
+
+  // Appends entries as less recent than everything cached, skipping the admission,
+  // expiry and eviction work that set does. Stops once the cache is full.
+  void restoreEntries(int[] keys, int[] values, int length){
+    if(map.isEmpty()){
+      map = new HashMap<>((int) (Math.min(length, capacity) / 0.75f) + 1);
+    }
+    for(int i = 0; i < length && count < capacity; i++){
+      if(map.containsKey(keys[i])){
+        continue;
+      }
+      Node n = new Node(keys[i], values[i]);
+      n.captured = captureEpoch;
+      n.stamp = --restoreClock;
+      map.put(keys[i], n);
+      Node before = tail.prev;
+      before.next = n;
+      n.prev = before;
+      n.next = tail;
+      tail.prev = n;
+      ++count;
     }
   }
 
+  // Advances the timing wheel, returning the current time or 0 if nothing can expire.
+  private long expireEntries(){
+    if(wheel.size() == 0){
+      return 0;
+    }
+    long now = ticker.getAsLong();
+    wheel.advance(now);
+    return now;
+  }
+
+  private void expire(Node node){
+    evict(node);
+    stats.recordExpiration();
+  }
+
+  private void evict(Node node){
+    remove(node);
+    map.remove(node.key);
+    wheel.deschedule(node);
+    --count;
+  }
+
   private void update(Node node){
     remove(node);
     add(node);
   }
   private void add(Node node){
+    node.stamp = ++clock;
     Node after = head.next;
     head.next = node;
     node.prev = head;
@@ -76,9 +368,39 @@ public class LRUCacheDemo {
   }
 
   private void remove(Node node){
+    if(capture != null){
+      preserve(node);
+      if(capture.cursor == node){
+        capture.cursor = node.next;
+      }
+    }
     Node before = node.prev;
     Node after = node.next;
     before.next = after;
     after.prev = before;
   }
-}
\ No newline at end of file
+
+  // Expiry cost per operation at steady state, for caches holding more and more live entries.
+  public static void main(String[] args) {
+    int ops = 5_000_000;
+    for(int live : new int[]{10_000, 100_000, 1_000_000, 4_000_000}){
+      long[] clock = {0};
+      LRUCacheDemo cache = new LRUCacheDemo(Integer.MAX_VALUE, AdmissionPolicy.ALWAYS, () -> clock[0]);
+      Random random = new Random(live);
+
+      // The clock moves 1ms per set and TTLs average live ms, so about live entries stay resident.
+      for(int i = 0; i < live * 2; i++){
+        clock[0] += 1_000_000;
+        cache.set(i, i, 1 + random.nextInt(live * 2), TimeUnit.MILLISECONDS);
+      }
+      long start = System.nanoTime();
+      for(int i = live * 2; i < live * 2 + ops; i++){
+        clock[0] += 1_000_000;
+        cache.set(i, i, 1 + random.nextInt(live * 2), TimeUnit.MILLISECONDS);
+        cache.get(i - random.nextInt(live));
+      }
+      long elapsed = System.nanoTime() - start;
+      System.out.printf("live=%-8d resident=%-8d %.1f ns/op%n", live, cache.count, (double) elapsed / ops);
+    }
+  }
+}
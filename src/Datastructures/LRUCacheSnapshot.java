@@ -0,0 +1,158 @@
+package Datastructures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Saves an {@link LRUCacheDemo} to a file and loads it back on startup, so a
+ * restarted service begins with a warm cache. The file holds a small header
+ * followed by all keys and then all values, most recent first. Both are
+ * read and written as bulk int copies through a MappedByteBuffer.
+ *
+ * {@link #write} copies the whole cache on the caller's thread, a pause of
+ * one list walk (tens of milliseconds per million entries). {@link
+ * #writeAsync} only starts the copy. After that, every get and set on the
+ * cache copies up to STEP more entries, about a microsecond of extra work
+ * per call, and an entry about to change before the copy reaches it is
+ * saved first. The result is still the cache as it was when writeAsync was
+ * called. The last call of the walk hands the copy to the executor, which
+ * puts it back in order and writes the file. A cache that goes idle never
+ * finishes the walk, so call {@link #finish} from its thread to complete it.
+ */
+public class LRUCacheSnapshot {
+
+  private static final int MAGIC = 0x4C525531; // "LRU1"
+  private static final int HEADER_BYTES = 8;
+  // Entries copied per cache call while an asynchronous write is in progress.
+  private static final int STEP = 64;
+
+  public static void write(LRUCacheDemo cache, Path file) throws IOException {
+    int[][][] entries = new int[1][][];
+    cache.beginCapture(STEP, capture -> entries[0] = capture.entries());
+    cache.finishCapture();
+    writeFile(entries[0][0], entries[0][1], file);
+  }
+
+  // Must be called on the thread that uses cache, like any other call to it. The future completes
+  // only once later cache calls, or finish, have walked the whole cache, so do not wait on it first.
+  public static CompletableFuture<Void> writeAsync(LRUCacheDemo cache, Path file, Executor executor) {
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    cache.beginCapture(STEP, capture -> {
+      try{
+        executor.execute(() -> {
+          try{
+            int[][] entries = capture.entries();
+            writeFile(entries[0], entries[1], file);
+            done.complete(null);
+          } catch (IOException e) {
+            done.completeExceptionally(new UncheckedIOException(e));
+          } catch (RuntimeException | Error e) {
+            done.completeExceptionally(e);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        done.completeExceptionally(e);
+      }
+    });
+    return done;
+  }
+
+  // Copies whatever an asynchronous write has not reached yet, on the calling thread.
+  public static void finish(LRUCacheDemo cache) {
+    cache.finishCapture();
+  }
+
+  // Loads the snapshot into cache, after any entries it already holds.
+  public static void restore(LRUCacheDemo cache, Path file) throws IOException {
+    try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if(channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC){
+        throw new IOException("not an LRU cache snapshot: " + file);
+      }
+      int count = buffer.getInt(4);
+      if(channel.size() != HEADER_BYTES + 8L * count){
+        throw new IOException("truncated LRU cache snapshot: " + file);
+      }
+      int[] keys = new int[count];
+      int[] values = new int[count];
+      buffer.position(HEADER_BYTES);
+      buffer.asIntBuffer().get(keys).get(values);
+      cache.restoreEntries(keys, values, count);
+    }
+  }
+
+  // Writes to a temporary file and moves it into place, so a crash never leaves a torn snapshot.
+  private static void writeFile(int[] keys, int[] values, Path file) throws IOException {
+    Path dir = file.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    try{
+      try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+        long size = HEADER_BYTES + 8L * keys.length;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(keys.length);
+        buffer.asIntBuffer().put(keys).put(values);
+        buffer.force();
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    int entries = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+    Path file = Files.createTempFile("lru-cache", ".snapshot");
+
+    LRUCacheDemo cache = new LRUCacheDemo(entries);
+    for(int i = 0; i < entries; i++){
+      cache.set(i, i * 2);
+    }
+
+    long start = System.nanoTime();
+    write(cache, file);
+    long writeMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // The same write again, with the cache serving gets while it runs.
+    ExecutorService writer = Executors.newSingleThreadExecutor();
+    start = System.nanoTime();
+    CompletableFuture<Void> written = writeAsync(cache, file, writer);
+    long startNanos = System.nanoTime() - start, slowest = 0, gets = 0;
+    while(!written.isDone()){
+      long t = System.nanoTime();
+      cache.get((int) (gets++ % entries));
+      slowest = Math.max(slowest, System.nanoTime() - t);
+    }
+    written.get();
+    long asyncMillis = (System.nanoTime() - start) / 1_000_000;
+    writer.shutdown();
+    cache = null;
+
+    start = System.nanoTime();
+    LRUCacheDemo restored = new LRUCacheDemo(entries);
+    restore(restored, file);
+    long restoreMillis = (System.nanoTime() - start) / 1_000_000;
+
+    System.out.printf("%d entries: %dMB snapshot, write %dms, restore %dms, get(0)=%d%n",
+        restored.size(), Files.size(file) >> 20, writeMillis, restoreMillis, restored.get(0));
+    System.out.printf("writeAsync: started in %dus, done in %dms over %d gets, slowest get %dus%n",
+        startNanos / 1000, asyncMillis, gets, slowest / 1000);
+    Files.delete(file);
+  }
+}
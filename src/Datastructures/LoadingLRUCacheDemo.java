@@ -0,0 +1,249 @@
+package Datastructures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Read-through front for {@link ConcurrentLRUCacheDemo}. On a miss the value
+ * is computed by a loader and stored. Concurrent misses on the same key share
+ * a single in-flight load instead of all recomputing it, and the misses of a
+ * bulk {@link #getAll(int[])} go to the bulk loader in one call.
+ *
+ * Loads run on the supplied executor. The default runs them on the thread
+ * that claimed the key; on JDK 21+ pass
+ * {@code Executors.newVirtualThreadPerTaskExecutor()} to load on virtual threads.
+ */
+public class LoadingLRUCacheDemo {
+
+  public interface BulkLoader {
+    // Returns the values for keys, in the same order.
+    int[] loadAll(int[] keys);
+  }
+
+  private final ConcurrentLRUCacheDemo cache;
+  private final ConcurrentHashMap<Integer, CompletableFuture<Integer>> inFlight;
+  private final BulkLoader bulkLoader;
+  private final Executor executor;
+  private volatile CacheStats stats = CacheStats.DISABLED;
+
+  public LoadingLRUCacheDemo(int capacity, BulkLoader bulkLoader) {
+    this(capacity, bulkLoader, Runnable::run);
+  }
+
+  public LoadingLRUCacheDemo(int capacity, BulkLoader bulkLoader, Executor executor) {
+    this.cache = new ConcurrentLRUCacheDemo(capacity);
+    this.inFlight = new ConcurrentHashMap<>();
+    this.bulkLoader = bulkLoader;
+    this.executor = executor;
+  }
+
+  public int get(int key) {
+    return get(key, k -> bulkLoader.loadAll(new int[]{k})[0]);
+  }
+
+  // Records hits and misses through the underlying cache and loads here.
+  public void setStats(CacheStats stats) {
+    this.stats = stats;
+    cache.setStats(stats);
+  }
+
+  public CacheStats stats() {
+    return stats;
+  }
+
+  public int get(int key, IntUnaryOperator loader) {
+    int value = cache.get(key);
+    if(value != -1){
+      return value;
+    }
+    return load(key, loader).join();
+  }
+
+  public CompletableFuture<Integer> getAsync(int key, IntUnaryOperator loader) {
+    int value = cache.get(key);
+    if(value != -1){
+      return CompletableFuture.completedFuture(value);
+    }
+    return load(key, loader);
+  }
+
+  // Loads key after a miss the caller has already recorded, sharing any load in flight.
+  private CompletableFuture<Integer> load(int key, IntUnaryOperator loader) {
+    CompletableFuture<Integer> load = new CompletableFuture<>();
+    CompletableFuture<Integer> existing = inFlight.putIfAbsent(key, load);
+    if(existing != null){
+      return existing;
+    }
+    try{
+      executor.execute(() -> {
+        try{
+          // Another load may have finished between our miss and claiming the key.
+        // This is the same logical get, so it must not count as a second miss.
+          int v = cache.lookup(key);
+          if(v == -1){
+            long start = System.nanoTime();
+            try{
+              v = loader.applyAsInt(key);
+            } catch (Throwable t) {
+              stats.recordLoad(1, System.nanoTime() - start, false);
+              throw t;
+            }
+            stats.recordLoad(1, System.nanoTime() - start, true);
+            cache.set(key, v);
+          }
+          load.complete(v);
+        } catch (Throwable t) {
+          load.completeExceptionally(t);
+        } finally {
+          inFlight.remove(key, load);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // Nothing will run the load, so fail it here rather than leave later callers waiting on it.
+      load.completeExceptionally(e);
+      inFlight.remove(key, load);
+    }
+    return load;
+  }
+
+  public int[] getAll(int[] keys) {
+    int[] values = new int[keys.length];
+    List<CompletableFuture<Integer>> pending = new ArrayList<>();
+    int[] pendingAt = new int[keys.length];
+
+    // Keys this call claims, to be loaded together in one bulk call.
+    int[] claimed = new int[keys.length];
+    List<CompletableFuture<Integer>> claimedLoads = new ArrayList<>();
+
+    for(int i = 0; i < keys.length; i++){
+      values[i] = cache.get(keys[i]);
+      if(values[i] != -1){
+        continue;
+      }
+      CompletableFuture<Integer> load = new CompletableFuture<>();
+      CompletableFuture<Integer> existing = inFlight.putIfAbsent(keys[i], load);
+      if(existing == null){
+        claimed[claimedLoads.size()] = keys[i];
+        claimedLoads.add(load);
+        existing = load;
+      }
+      pendingAt[pending.size()] = i;
+      pending.add(existing);
+    }
+
+    if(!claimedLoads.isEmpty()){
+      int[] batch = new int[claimedLoads.size()];
+      System.arraycopy(claimed, 0, batch, 0, batch.length);
+      try{
+        executor.execute(() -> loadBatch(batch, claimedLoads));
+      } catch (RejectedExecutionException e) {
+        for(int i = 0; i < batch.length; i++){
+          claimedLoads.get(i).completeExceptionally(e);
+          inFlight.remove(batch[i], claimedLoads.get(i));
+        }
+      }
+    }
+
+    for(int i = 0; i < pending.size(); i++){
+      values[pendingAt[i]] = pending.get(i).join();
+    }
+    return values;
+  }
+
+  private void loadBatch(int[] batch, List<CompletableFuture<Integer>> loads) {
+    long start = System.nanoTime();
+    try{
+      int[] loaded = bulkLoader.loadAll(batch);
+      stats.recordLoad(batch.length, System.nanoTime() - start, true);
+      for(int i = 0; i < batch.length; i++){
+        cache.set(batch[i], loaded[i]);
+        loads.get(i).complete(loaded[i]);
+      }
+    } catch (Throwable t) {
+      stats.recordLoad(batch.length, System.nanoTime() - start, false);
+      for(CompletableFuture<Integer> load : loads){
+        load.completeExceptionally(t);
+      }
+    } finally {
+      for(int i = 0; i < batch.length; i++){
+        inFlight.remove(batch[i], loads.get(i));
+      }
+    }
+  }
+
+  // Stand-in for a remote origin: every call takes 50ms regardless of batch size.
+  private static int[] slowLoad(int[] keys, AtomicInteger calls) {
+    calls.incrementAndGet();
+    try{
+      Thread.sleep(50);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    int[] values = new int[keys.length];
+    for(int i = 0; i < keys.length; i++){
+      values[i] = keys[i] * 2;
+    }
+    return values;
+  }
+
+  private static long stampede(int threads, Runnable request) throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(threads);
+    for(int t = 0; t < threads; t++){
+      new Thread(() -> {
+        try{
+          start.await();
+          request.run();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          done.countDown();
+        }
+      }).start();
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    done.await();
+    return (System.nanoTime() - begin) / 1_000_000;
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int threads = 200;
+    int hotKey = 7;
+
+    // Without coalescing every thread that misses recomputes the value.
+    AtomicInteger naiveCalls = new AtomicInteger();
+    ConcurrentLRUCacheDemo naive = new ConcurrentLRUCacheDemo(1_000);
+    long naiveMillis = stampede(threads, () -> {
+      if(naive.get(hotKey) == -1){
+        naive.set(hotKey, slowLoad(new int[]{hotKey}, naiveCalls)[0]);
+      }
+    });
+
+    AtomicInteger loadingCalls = new AtomicInteger();
+    LoadingLRUCacheDemo loading = new LoadingLRUCacheDemo(1_000, keys -> slowLoad(keys, loadingCalls));
+    long loadingMillis = stampede(threads, () -> loading.get(hotKey));
+
+    System.out.printf("hot key, %d threads: naive %d loads in %dms, coalesced %d loads in %dms%n",
+        threads, naiveCalls.get(), naiveMillis, loadingCalls.get(), loadingMillis);
+
+    int[] keys = new int[500];
+    for(int i = 0; i < keys.length; i++){
+      keys[i] = 1_000 + i;
+    }
+    loadingCalls.set(0);
+    long begin = System.nanoTime();
+    loading.getAll(keys);
+    System.out.printf("getAll of %d cold keys: %d loader calls in %dms%n",
+        keys.length, loadingCalls.get(), (System.nanoTime() - begin) / 1_000_000);
+  }
+}
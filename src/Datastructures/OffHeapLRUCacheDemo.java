@@ -0,0 +1,304 @@
+package Datastructures;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Off-heap version of {@link PrimitiveLRUCacheDemo}. The entries and the hash
+ * index share one direct ByteBuffer, so the cache adds no objects to the heap
+ * for the collector to trace, however large it gets. The native memory is
+ * released by {@link #close()} rather than waiting for the buffer to be collected.
+ *
+ * Layout: (capacity + 1) entries of 16 bytes {key, value, prev, next}, with
+ * entry {@code capacity} as the recency list sentinel, followed by the
+ * linear-probing index of slot + 1 ints.
+ */
+public class OffHeapLRUCacheDemo implements AutoCloseable {
+
+  private static final int ENTRY_BYTES = 16;
+  private static final int KEY = 0, VALUE = 4, PREV = 8, NEXT = 12;
+  private static final int EMPTY = 0;
+
+  private final int capacity;
+  private final int head;
+  private final int tableBase;
+  private final int mask;
+  private int count;
+  private ByteBuffer memory;
+
+  public OffHeapLRUCacheDemo(int capacity) {
+    if(capacity < 0){
+      throw new IllegalArgumentException("capacity must be >= 0");
+    }
+    int size = 2;
+    while(size < capacity * 2L){
+      size <<= 1;
+    }
+    long bytes = (capacity + 1L) * ENTRY_BYTES + size * 4L;
+    if(bytes > Integer.MAX_VALUE){
+      throw new IllegalArgumentException("capacity too large for a single buffer: " + capacity);
+    }
+    this.capacity = capacity;
+    this.head = capacity;
+    this.tableBase = (capacity + 1) * ENTRY_BYTES;
+    this.mask = size - 1;
+    // allocateDirect zeroes the memory, so every index slot starts EMPTY.
+    this.memory = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    setPrev(head, head);
+    setNext(head, head);
+  }
+
+  public int get(int key) {
+    ensureOpen();
+    int slot = find(key);
+    if(slot < 0){
+      return -1;
+    }
+    update(slot);
+    return memory.getInt(entry(slot) + VALUE);
+  }
+
+  public void set(int key, int value) {
+    ensureOpen();
+    if(capacity == 0){
+      return;
+    }
+    int slot = find(key);
+    if(slot >= 0){
+      memory.putInt(entry(slot) + VALUE, value);
+      update(slot);
+      return;
+    }
+    if(count == capacity){
+      slot = prev(head);
+      remove(slot);
+      unindex(memory.getInt(entry(slot) + KEY));
+    }
+    else{
+      slot = count++;
+    }
+    memory.putInt(entry(slot) + KEY, key);
+    memory.putInt(entry(slot) + VALUE, value);
+    index(key, slot);
+    add(slot);
+  }
+
+  public int size() {
+    return count;
+  }
+
+  // Frees the native memory now. The cache cannot be used afterwards.
+  @Override
+  public void close() {
+    ByteBuffer buffer = memory;
+    memory = null;
+    if(buffer != null){
+      free(buffer);
+    }
+  }
+
+  private void ensureOpen() {
+    if(memory == null){
+      throw new IllegalStateException("cache is closed");
+    }
+  }
+
+  private static int entry(int slot) {
+    return slot * ENTRY_BYTES;
+  }
+
+  private int prev(int slot) {
+    return memory.getInt(entry(slot) + PREV);
+  }
+
+  private int next(int slot) {
+    return memory.getInt(entry(slot) + NEXT);
+  }
+
+  private void setPrev(int slot, int prev) {
+    memory.putInt(entry(slot) + PREV, prev);
+  }
+
+  private void setNext(int slot, int next) {
+    memory.putInt(entry(slot) + NEXT, next);
+  }
+
+  private void update(int slot){
+    remove(slot);
+    add(slot);
+  }
+
+  private void add(int slot){
+    int after = next(head);
+    setNext(head, slot);
+    setPrev(slot, head);
+    setNext(slot, after);
+    setPrev(after, slot);
+  }
+
+  private void remove(int slot){
+    int before = prev(slot);
+    int after = next(slot);
+    setNext(before, after);
+    setPrev(after, before);
+  }
+
+  private int bucket(int i) {
+    return memory.getInt(tableBase + (i << 2));
+  }
+
+  private void setBucket(int i, int value) {
+    memory.putInt(tableBase + (i << 2), value);
+  }
+
+  private int keyAt(int bucketValue) {
+    return memory.getInt(entry(bucketValue - 1) + KEY);
+  }
+
+  private static int hash(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private int find(int key) {
+    int i = hash(key) & mask;
+    int b;
+    while((b = bucket(i)) != EMPTY){
+      if(keyAt(b) == key){
+        return b - 1;
+      }
+      i = (i + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void index(int key, int slot) {
+    int i = hash(key) & mask;
+    while(bucket(i) != EMPTY){
+      i = (i + 1) & mask;
+    }
+    setBucket(i, slot + 1);
+  }
+
+  private void unindex(int key) {
+    int i = hash(key) & mask;
+    while(keyAt(bucket(i)) != key){
+      i = (i + 1) & mask;
+    }
+    int j = i;
+    while(true){
+      j = (j + 1) & mask;
+      int b = bucket(j);
+      if(b == EMPTY){
+        break;
+      }
+      int home = hash(keyAt(b)) & mask;
+      boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+      if(!stays){
+        setBucket(i, b);
+        i = j;
+      }
+    }
+    setBucket(i, EMPTY);
+  }
+
+  // JDK 9+ exposes Unsafe.invokeCleaner; JDK 8 needs the buffer's own cleaner.
+  private static void free(ByteBuffer buffer) {
+    try{
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      invokeCleaner.invoke(theUnsafe.get(null), buffer);
+    } catch (NoSuchMethodException e) {
+      try{
+        Method cleaner = buffer.getClass().getMethod("cleaner");
+        cleaner.setAccessible(true);
+        Object c = cleaner.invoke(buffer);
+        c.getClass().getMethod("clean").invoke(c);
+      } catch (ReflectiveOperationException ignored) {
+        // Left to the garbage collector.
+      }
+    } catch (ReflectiveOperationException ignored) {
+      // Left to the garbage collector.
+    }
+  }
+
+  private static long[] gcTotals() {
+    long count = 0, millis = 0;
+    for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()){
+      count += gc.getCollectionCount();
+      millis += gc.getCollectionTime();
+    }
+    return new long[]{count, millis};
+  }
+
+  private static void measure(String name, int entries, IntCache cache) {
+    long heapBefore = Benchmarks.usedHeap();
+    long[] gcBefore = gcTotals();
+    long start = System.nanoTime();
+    for(int i = 0; i < entries; i++){
+      cache.set(i, i);
+    }
+    // Churn afterwards so the collector runs while the full cache is live.
+    Random random = new Random(1);
+    long sink = 0;
+    for(int i = 0; i < entries; i++){
+      int key = random.nextInt(entries * 2);
+      cache.set(key, i);
+      sink += cache.get(random.nextInt(entries * 2));
+      // Short-lived garbage standing in for the rest of the application.
+      sink += new int[64].length;
+    }
+    long elapsed = (System.nanoTime() - start) / 1_000_000;
+    long[] gcAfter = gcTotals();
+    long heap = Benchmarks.usedHeap() - heapBefore;
+    System.out.printf("%-20s heap=%dMB gcs=%d gcTime=%dms total=%dms (%d)%n",
+        name, heap >> 20, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1], elapsed, sink);
+  }
+
+  // Each cache is built in its own method so it is unreachable while the other is measured.
+  private static void measureOnHeap(int entries) {
+    LRUCacheDemo cache = new LRUCacheDemo(entries);
+    measure("LRUCacheDemo", entries, new IntCache() {
+      @Override
+      public int get(int key) {
+        return cache.get(key);
+      }
+
+      @Override
+      public void set(int key, int value) {
+        cache.set(key, value);
+      }
+    });
+  }
+
+  private static void measureOffHeap(int entries) {
+    try(OffHeapLRUCacheDemo cache = new OffHeapLRUCacheDemo(entries)){
+      measure("OffHeapLRUCacheDemo", entries, new IntCache() {
+        @Override
+        public int get(int key) {
+          return cache.get(key);
+        }
+
+        @Override
+        public void set(int key, int value) {
+          cache.set(key, value);
+        }
+      });
+    }
+  }
+
+  public static void main(String[] args) {
+    int entries = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+    measureOnHeap(entries);
+    measureOffHeap(entries);
+  }
+}
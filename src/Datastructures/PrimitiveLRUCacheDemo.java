@@ -0,0 +1,215 @@
+package Datastructures;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Same contract as {@link LRUCacheDemo}, but every entry lives in parallel
+ * int[] arrays addressed by slot index. The recency list is a circular
+ * doubly linked list threaded through prev[]/next[] with slot {@code capacity}
+ * as the sentinel, and the key lookup is an open-addressing (linear probing)
+ * table of slot + 1. Once the cache is warm, get and set allocate nothing.
+ */
+public class PrimitiveLRUCacheDemo {
+
+  private static final int EMPTY = 0;
+
+  private final int capacity;
+  private final int head;
+  private int count;
+
+  private final int[] keys, values, prev, next;
+  private final int[] table;
+  private final int mask;
+
+  public PrimitiveLRUCacheDemo(int capacity) {
+    if(capacity < 0){
+      throw new IllegalArgumentException("capacity must be >= 0");
+    }
+    this.capacity = capacity;
+    this.head = capacity;
+    keys = new int[capacity + 1];
+    values = new int[capacity + 1];
+    prev = new int[capacity + 1];
+    next = new int[capacity + 1];
+    prev[head] = head;
+    next[head] = head;
+
+    // Keep the load factor at or below 0.5 so probe sequences stay short.
+    int size = 2;
+    while(size < capacity * 2){
+      size <<= 1;
+    }
+    table = new int[size];
+    mask = size - 1;
+  }
+
+  public int get(int key) {
+    int slot = find(key);
+    if(slot < 0){
+      return -1;
+    }
+    update(slot);
+    return values[slot];
+  }
+
+  public void set(int key, int value) {
+    if(capacity == 0){
+      return;
+    }
+    int slot = find(key);
+    if(slot >= 0){
+      values[slot] = value;
+      update(slot);
+      return;
+    }
+    if(count == capacity){
+      // Reuse the least recently used slot instead of allocating a new one.
+      slot = prev[head];
+      remove(slot);
+      unindex(keys[slot]);
+    }
+    else{
+      slot = count++;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    index(key, slot);
+    add(slot);
+  }
+
+  public int size() {
+    return count;
+  }
+
+  private void update(int slot){
+    remove(slot);
+    add(slot);
+  }
+
+  private void add(int slot){
+    int after = next[head];
+    next[head] = slot;
+    prev[slot] = head;
+    next[slot] = after;
+    prev[after] = slot;
+  }
+
+  private void remove(int slot){
+    int before = prev[slot];
+    int after = next[slot];
+    next[before] = after;
+    prev[after] = before;
+  }
+
+  private static int hash(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private int find(int key) {
+    int i = hash(key) & mask;
+    while(table[i] != EMPTY){
+      int slot = table[i] - 1;
+      if(keys[slot] == key){
+        return slot;
+      }
+      i = (i + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void index(int key, int slot) {
+    int i = hash(key) & mask;
+    while(table[i] != EMPTY){
+      i = (i + 1) & mask;
+    }
+    table[i] = slot + 1;
+  }
+
+  // Backward-shift deletion: no tombstones, so lookups never degrade over time.
+  private void unindex(int key) {
+    int i = hash(key) & mask;
+    while(keys[table[i] - 1] != key){
+      i = (i + 1) & mask;
+    }
+    int j = i;
+    while(true){
+      j = (j + 1) & mask;
+      if(table[j] == EMPTY){
+        break;
+      }
+      int home = hash(keys[table[j] - 1]) & mask;
+      // Move the entry at j into the hole at i unless its home lies cyclically in (i, j].
+      boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+      if(!stays){
+        table[i] = table[j];
+        i = j;
+      }
+    }
+    table[i] = EMPTY;
+  }
+
+  // HotSpot exposes per-thread allocation counters through its own MXBean.
+  private static long allocatedBytes() {
+    com.sun.management.ThreadMXBean bean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  public static void main(String[] args) {
+    int capacity = 1_000_000;
+    int ops = 20_000_000;
+
+    long before = Benchmarks.usedHeap();
+    LRUCacheDemo boxed = new LRUCacheDemo(capacity);
+    for(int i = 0; i < capacity; i++){
+      boxed.set(i, i);
+    }
+    long boxedBytes = Benchmarks.usedHeap() - before;
+
+    before = Benchmarks.usedHeap();
+    PrimitiveLRUCacheDemo primitive = new PrimitiveLRUCacheDemo(capacity);
+    for(int i = 0; i < capacity; i++){
+      primitive.set(i, i);
+    }
+    long primitiveBytes = Benchmarks.usedHeap() - before;
+
+    System.out.printf("bytes/entry: LRUCacheDemo=%.1f PrimitiveLRUCacheDemo=%.1f%n",
+        (double) boxedBytes / capacity, (double) primitiveBytes / capacity);
+
+    // Set-heavy workload over a key space twice the capacity, so half the sets evict.
+    Random random = new Random(42);
+    int[] trace = new int[ops];
+    for(int i = 0; i < ops; i++){
+      trace[i] = random.nextInt(capacity * 2);
+    }
+
+    long sink = 0;
+    long alloc = allocatedBytes();
+    long start = System.nanoTime();
+    for(int i = 0; i < ops; i++){
+      boxed.set(trace[i], i);
+      sink += boxed.get(trace[(i * 31) % ops]);
+    }
+    long boxedNanos = System.nanoTime() - start;
+    long boxedAlloc = allocatedBytes() - alloc;
+
+    alloc = allocatedBytes();
+    start = System.nanoTime();
+    for(int i = 0; i < ops; i++){
+      primitive.set(trace[i], i);
+      sink += primitive.get(trace[(i * 31) % ops]);
+    }
+    long primitiveNanos = System.nanoTime() - start;
+    long primitiveAlloc = allocatedBytes() - alloc;
+
+    System.out.printf("LRUCacheDemo:          %.1f ns/op, %.1f bytes allocated/op%n",
+        (double) boxedNanos / ops, (double) boxedAlloc / ops);
+    System.out.printf("PrimitiveLRUCacheDemo: %.1f ns/op, %.1f bytes allocated/op%n",
+        (double) primitiveNanos / ops, (double) primitiveAlloc / ops);
+    System.out.println(sink);
+  }
+}
@@ -0,0 +1,238 @@
+package Datastructures;
+
+import java.util.Random;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Path-compressed (PATRICIA) trie with the same insert/search/startsWith
+ * API as {@link Trie}. Each edge is labelled with a range [start, end)
+ * of one shared char pool. A new word appends only the suffix no
+ * existing edge already covers, and splitting an edge just splits its
+ * range. Chains of single-child nodes collapse into one edge. Children
+ * are kept in an array sorted by their first char, so any char can be
+ * stored, not just 'a' to 'z'. Keys are compared by UTF-16 code unit,
+ * which handles every code point.
+ */
+public class RadixTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final char[] NO_FIRSTS = new char[0];
+
+    private static final class Node {
+        int start, end;
+        Node[] children = NO_CHILDREN;
+        // First char of each child's label, searched without touching the children.
+        char[] firsts = NO_FIRSTS;
+        boolean isEnd;
+
+        Node(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        int length() {
+            return end - start;
+        }
+    }
+
+    private final Node root = new Node(0, 0);
+    private char[] pool = new char[64];
+    private int poolSize;
+
+    // Inserts a word into the trie.
+    public void insert(String word) {
+        Node node = root;
+        int i = 0;
+
+        while (i < word.length()) {
+            int index = childIndex(node, word.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(poolSize, poolSize + word.length() - i);
+                append(word, i);
+                leaf.isEnd = true;
+                addChild(node, -index - 1, leaf);
+                return;
+            }
+
+            Node child = node.children[index];
+            int common = commonLength(child, word, i);
+            if (common < child.length()) {
+                // Split the edge: the shared part becomes a new node above the old child.
+                Node split = new Node(child.start, child.start + common);
+                child.start += common;
+                split.children = new Node[]{child};
+                split.firsts = new char[]{pool[child.start]};
+                node.children[index] = split;
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+
+        node.isEnd = true;
+    }
+
+    // Returns if the word is in the trie.
+    public boolean search(String word) {
+        Node node = root;
+        int i = 0;
+
+        while (i < word.length()) {
+            int index = childIndex(node, word.charAt(i));
+            if (index < 0) {
+                return false;
+            }
+            node = node.children[index];
+            if (commonLength(node, word, i) < node.length()) {
+                return false;
+            }
+            i += node.length();
+        }
+
+        return node != root && node.isEnd;
+    }
+
+    // Returns if there is any word in the trie that starts with the given prefix.
+    public boolean startsWith(String prefix) {
+        Node node = root;
+        int i = 0;
+
+        while (i < prefix.length()) {
+            int index = childIndex(node, prefix.charAt(i));
+            if (index < 0) {
+                return false;
+            }
+            node = node.children[index];
+            int common = commonLength(node, prefix, i);
+            if (common < node.length()) {
+                // The prefix may end part way along an edge.
+                return i + common == prefix.length();
+            }
+            i += common;
+        }
+
+        return node != root;
+    }
+
+    private void append(String word, int from) {
+        int length = word.length() - from;
+        if (poolSize + length > pool.length) {
+            char[] grown = new char[Math.max(pool.length * 2, poolSize + length)];
+            System.arraycopy(pool, 0, grown, 0, poolSize);
+            pool = grown;
+        }
+        word.getChars(from, word.length(), pool, poolSize);
+        poolSize += length;
+    }
+
+    // The first char already matched in childIndex, so comparison starts at the second.
+    private int commonLength(Node node, String s, int from) {
+        char[] pool = this.pool;
+        int max = Math.min(node.length(), s.length() - from);
+        int n = 1;
+        while (n < max && pool[node.start + n] == s.charAt(from + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    // Binary search on first chars; returns -(insertion point) - 1 when absent.
+    private static int childIndex(Node node, char c) {
+        char[] firsts = node.firsts;
+        int low = 0, high = firsts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char m = firsts[mid];
+            if (m < c) {
+                low = mid + 1;
+            } else if (m > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+    private void addChild(Node node, int at, Node child) {
+        Node[] old = node.children;
+        Node[] children = new Node[old.length + 1];
+        System.arraycopy(old, 0, children, 0, at);
+        children[at] = child;
+        System.arraycopy(old, at, children, at + 1, old.length - at);
+        node.children = children;
+
+        char[] oldFirsts = node.firsts;
+        char[] firsts = new char[oldFirsts.length + 1];
+        System.arraycopy(oldFirsts, 0, firsts, 0, at);
+        firsts[at] = pool[child.start];
+        System.arraycopy(oldFirsts, at, firsts, at + 1, oldFirsts.length - at);
+        node.firsts = firsts;
+    }
+
+    private static String[] words(int count, Random random) {
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = 4 + random.nextInt(10);
+            StringBuilder sb = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                // Skewed letters, so words share prefixes the way real ones do.
+                int r = random.nextInt(26);
+                sb.append((char) ('a' + r * r / 26));
+            }
+            words[i] = sb.toString();
+        }
+        return words;
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(11);
+        String[] words = words(count, random);
+        String[] probes = words(count, random);
+
+        // The words array stays reachable throughout, so only the tries themselves are measured.
+        long before = Benchmarks.usedHeap();
+        Trie trie = new Trie();
+        for (String w : words) {
+            trie.insert(w);
+        }
+        long trieBytes = Benchmarks.usedHeap() - before;
+
+        before = Benchmarks.usedHeap();
+        RadixTrie radix = new RadixTrie();
+        for (String w : words) {
+            radix.insert(w);
+        }
+        long radixBytes = Benchmarks.usedHeap() - before;
+
+        System.out.printf("%d words: Trie %dMB, RadixTrie %dMB%n", count, trieBytes >> 20, radixBytes >> 20);
+
+        for (int round = 0; round < 3; round++) {
+            int found = 0;
+            long start = System.nanoTime();
+            for (String p : probes) {
+                if (trie.search(p)) found++;
+            }
+            long trieNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (String p : probes) {
+                if (radix.search(p)) found--;
+            }
+            long radixNanos = System.nanoTime() - start;
+            System.out.printf("search: Trie %.0f ns, RadixTrie %.0f ns (diff %d)%n",
+                    (double) trieNanos / count, (double) radixNanos / count, found);
+        }
+
+        RadixTrie unicode = new RadixTrie();
+        unicode.insert("Naren");
+        unicode.insert("Nathan");
+        unicode.insert("Z\u00fcrich");
+        unicode.insert("\u6771\u4eac");
+        unicode.insert("\ud83d\ude00 smile");
+        System.out.println(unicode.search("Naren") + " " + unicode.startsWith("Nat")
+                + " " + unicode.search("Z\u00fcrich") + " " + unicode.startsWith("\u6771") + " " + unicode.search("\ud83d\ude00 smile"));
+    }
+}
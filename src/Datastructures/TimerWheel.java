@@ -0,0 +1,138 @@
+package Datastructures;
+
+import java.util.function.Consumer;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Hierarchical timing wheel. Each level is an array of buckets holding an
+ * intrusive circular list of timers; level i has buckets 2^SHIFT[i] nanos
+ * wide. Scheduling and descheduling are O(1), and advancing the clock only
+ * visits the buckets whose tick has passed, so the cost of expiry does not
+ * depend on how many timers are outstanding. Timers parked on a coarse level
+ * are cascaded down to a finer one when their bucket comes due.
+ */
+public class TimerWheel<T extends TimerWheel.Timer> {
+
+  // Tick widths of roughly 1.07s, 1.14m, 1.22h, 0.8d and 13d.
+  private static final int[] SHIFT = {30, 36, 42, 46, 50};
+  private static final int[] BUCKETS = {64, 64, 32, 16, 1};
+
+  public static class Timer {
+    long deadline;
+    Timer previousInBucket, nextInBucket;
+
+    boolean isScheduled() {
+      return nextInBucket != null;
+    }
+  }
+
+  private final Timer[][] wheel;
+  private final Consumer<T> expirer;
+  private long nanos;
+  private int size;
+
+  public TimerWheel(long now, Consumer<T> expirer) {
+    this.nanos = now;
+    this.expirer = expirer;
+    wheel = new Timer[BUCKETS.length][];
+    for(int i = 0; i < wheel.length; i++){
+      wheel[i] = new Timer[BUCKETS[i]];
+      for(int j = 0; j < BUCKETS[i]; j++){
+        Timer sentinel = new Timer();
+        sentinel.previousInBucket = sentinel;
+        sentinel.nextInBucket = sentinel;
+        wheel[i][j] = sentinel;
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  // Schedules the timer to fire at its deadline, moving it if it was already scheduled.
+  public void schedule(T timer) {
+    if(timer.isScheduled()){
+      unlink(timer);
+    } else {
+      size++;
+    }
+    link(findBucket(timer.deadline), timer);
+  }
+
+  public void deschedule(T timer) {
+    if(timer.isScheduled()){
+      unlink(timer);
+      size--;
+    }
+  }
+
+  // Moves the clock to now, expiring every timer whose deadline has passed.
+  public void advance(long now) {
+    long previous = nanos;
+    nanos = now;
+    for(int i = 0; i < SHIFT.length; i++){
+      long previousTicks = previous >>> SHIFT[i];
+      long currentTicks = now >>> SHIFT[i];
+      if(currentTicks - previousTicks <= 0){
+        break;
+      }
+      expire(i, previousTicks, currentTicks - previousTicks);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void expire(int level, long previousTicks, long delta) {
+    Timer[] buckets = wheel[level];
+    int mask = buckets.length - 1;
+    int steps = (int) Math.min(delta + 1, buckets.length);
+    int start = (int) (previousTicks & mask);
+    for(int i = start; i < start + steps; i++){
+      Timer sentinel = buckets[i & mask];
+      Timer timer = sentinel.nextInBucket;
+      sentinel.previousInBucket = sentinel;
+      sentinel.nextInBucket = sentinel;
+
+      while(timer != sentinel){
+        Timer next = timer.nextInBucket;
+        timer.previousInBucket = null;
+        timer.nextInBucket = null;
+        if(timer.deadline - nanos <= 0){
+          size--;
+          expirer.accept((T) timer);
+        } else {
+          // Not due yet: cascade it into the bucket matching its remaining time.
+          link(findBucket(timer.deadline), timer);
+        }
+        timer = next;
+      }
+    }
+  }
+
+  private Timer findBucket(long deadline) {
+    long duration = deadline - nanos;
+    int last = SHIFT.length - 1;
+    for(int i = 0; i < last; i++){
+      if(duration < 1L << SHIFT[i + 1]){
+        long ticks = deadline >>> SHIFT[i];
+        return wheel[i][(int) (ticks & (BUCKETS[i] - 1))];
+      }
+    }
+    return wheel[last][0];
+  }
+
+  private static void link(Timer sentinel, Timer timer) {
+    timer.previousInBucket = sentinel.previousInBucket;
+    timer.nextInBucket = sentinel;
+    sentinel.previousInBucket.nextInBucket = timer;
+    sentinel.previousInBucket = timer;
+  }
+
+  private static void unlink(Timer timer) {
+    timer.previousInBucket.nextInBucket = timer.nextInBucket;
+    timer.nextInBucket.previousInBucket = timer.previousInBucket;
+    timer.previousInBucket = null;
+    timer.nextInBucket = null;
+  }
+}
@@ -0,0 +1,27 @@
+package Datastructures;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * TinyLFU admission: a new key only replaces the LRU victim when the
+ * frequency sketch has seen it more often. A one-off scan of cold keys
+ * therefore cannot flush the hot working set.
+ */
+public class TinyLfuAdmission implements AdmissionPolicy {
+
+  private final FrequencySketch sketch;
+
+  public TinyLfuAdmission(int capacity) {
+    sketch = new FrequencySketch(capacity);
+  }
+
+  @Override
+  public void record(int key) {
+    sketch.increment(key);
+  }
+
+  @Override
+  public boolean admit(int candidate, int victim) {
+    return sketch.frequency(candidate) > sketch.frequency(victim);
+  }
+}
@@ -7,6 +7,9 @@ public class TreeNode {
 
     public int val;
     public TreeNode left, right = null;
+    // Height and node count of the subtree rooted here, kept up to date by AVLTree.
+    int height = 1;
+    int size = 1;
 
     TreeNode(int val) {
         this.val = val;
@@ -0,0 +1,231 @@
+package Datastructures;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+
+/**
+ * Created by Naren on 10/18/26.
+ *
+ * Lazy traversals over a tree of {@link TreeNode}s. They use explicit
+ * stacks instead of recursion, so they hold O(height) nodes and cannot
+ * overflow the call stack on a degenerate tree. The tree must not change
+ * while a traversal is in progress.
+ */
+final class TreeTraversal {
+
+    private TreeTraversal() {
+    }
+
+    static PrimitiveIterator.OfInt preOrder(TreeNode root) {
+        ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public int nextInt() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                TreeNode node = stack.pop();
+                if (node.right != null) stack.push(node.right);
+                if (node.left != null) stack.push(node.left);
+                return node.val;
+            }
+        };
+    }
+
+    static PrimitiveIterator.OfInt inOrder(TreeNode root) {
+        ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+        for (TreeNode node = root; node != null; node = node.left) {
+            stack.push(node);
+        }
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public int nextInt() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                TreeNode node = stack.pop();
+                for (TreeNode n = node.right; n != null; n = n.left) {
+                    stack.push(n);
+                }
+                return node.val;
+            }
+        };
+    }
+
+    static PrimitiveIterator.OfInt postOrder(TreeNode root) {
+        ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+        pushLeaf(stack, root);
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public int nextInt() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                TreeNode node = stack.pop();
+                // If node was its parent's left child, the parent's right subtree comes next.
+                if (!stack.isEmpty() && stack.peek().left == node) {
+                    pushLeaf(stack, stack.peek().right);
+                }
+                return node.val;
+            }
+        };
+    }
+
+    // Pushes the path down to the first node in post-order under node: left when possible, else right.
+    private static void pushLeaf(ArrayDeque<TreeNode> stack, TreeNode node) {
+        while (node != null) {
+            stack.push(node);
+            node = node.left != null ? node.left : node.right;
+        }
+    }
+
+    static Spliterator.OfInt preOrderSpliterator(TreeNode root) {
+        return Spliterators.spliteratorUnknownSize(preOrder(root), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    static Spliterator.OfInt postOrderSpliterator(TreeNode root) {
+        return Spliterators.spliteratorUnknownSize(postOrder(root), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    // estimatedSize is a hint for the stream framework; pass Long.MAX_VALUE when unknown.
+    static Spliterator.OfInt inOrderSpliterator(TreeNode root, long estimatedSize) {
+        InOrderSpliterator s = new InOrderSpliterator(estimatedSize);
+        if (root != null) {
+            s.push(root, true);
+        }
+        return s;
+    }
+
+    /**
+     * In-order spliterator over a run of items. An item is either a whole
+     * subtree or a single node. The item at top - 1 comes first. Visiting a
+     * subtree replaces it with its left subtree, its node and its right
+     * subtree. trySplit gives away every item before the last subtree in the
+     * run and keeps that subtree and whatever follows it. At the start that
+     * splits the tree at the root.
+     */
+    private static final class InOrderSpliterator implements Spliterator.OfInt {
+        private TreeNode[] nodes = new TreeNode[16];
+        private boolean[] whole = new boolean[16];
+        private int top;
+        private long estimate;
+
+        InOrderSpliterator(long estimate) {
+            this.estimate = estimate;
+        }
+
+        void push(TreeNode node, boolean subtree) {
+            if (top == nodes.length) {
+                nodes = Arrays.copyOf(nodes, top * 2);
+                whole = Arrays.copyOf(whole, top * 2);
+            }
+            nodes[top] = node;
+            whole[top++] = subtree;
+        }
+
+        private void expand() {
+            TreeNode node = nodes[--top];
+            nodes[top] = null;
+            if (node.right != null) push(node.right, true);
+            push(node, false);
+            if (node.left != null) push(node.left, true);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            while (top > 0) {
+                if (whole[top - 1]) {
+                    expand();
+                } else {
+                    TreeNode node = nodes[--top];
+                    nodes[top] = null;
+                    action.accept(node.val);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            while (top > 0) {
+                if (whole[top - 1]) {
+                    expand();
+                } else {
+                    TreeNode node = nodes[--top];
+                    nodes[top] = null;
+                    action.accept(node.val);
+                }
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int last = lastSubtree();
+            // A subtree at the front has nothing before it to give away, so open it up.
+            while (last == top - 1 && last >= 0) {
+                expand();
+                last = lastSubtree();
+            }
+            if (last < 0) {
+                return null;
+            }
+            InOrderSpliterator prefix = new InOrderSpliterator(estimate >>>= 1);
+            for (int i = last + 1; i < top; i++) {
+                prefix.push(nodes[i], whole[i]);
+                nodes[i] = null;
+            }
+            top = last + 1;
+            return prefix;
+        }
+
+        // Index of the subtree item that comes last in order, or -1.
+        private int lastSubtree() {
+            for (int i = 0; i < top; i++) {
+                if (whole[i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | NONNULL;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return null;
+        }
+    }
+}
@@ -1,18 +1,116 @@
 package Datastructures;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
 /**
  * Created by Naren on 5/19/17.
  */
 public class Trie {
     private TrieNode root;
+    private final int maxSuggestions;
+    private boolean linked;
 
     public Trie() {
+        this(10);
+    }
+
+    // maxSuggestions bounds the completions cached at each node, and so the k topK can answer.
+    public Trie(int maxSuggestions) {
+        if (maxSuggestions < 1) {
+            throw new IllegalArgumentException("maxSuggestions must be > 0: " + maxSuggestions);
+        }
         root = new TrieNode();
+        this.maxSuggestions = maxSuggestions;
     }
 
-    // Inserts a word into the trie.
+    // Inserts a word into the trie. It has no weight, so topK does not suggest it.
     public void insert(String word) {
+        TrieNode node = createPath(word)[word.length()];
+        node.isEnd = true;
+        node.word = word;
+    }
+
+    // Inserts a word with a weight for topK, or changes the weight of a word already present.
+    public void insert(String word, long weight) {
+        setWeight(createPath(word), word, weight);
+    }
+
+    // Returns up to k of the highest weighted words starting with prefix, best first.
+    // Only words inserted with a weight are suggested, and never more than maxSuggestions.
+    public List<String> topK(String prefix, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be >= 0: " + k);
+        }
+        TrieNode node = searchNode(prefix);
+        if (node == null || node.topCount == 0) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(Arrays.copyOf(node.topWords, Math.min(k, node.topCount)));
+    }
+
+    // Visits every word in the trie in alphabetical order.
+    public void forEach(Consumer<String> action) {
+        forEach(root, action);
+    }
+
+    private static void forEach(TrieNode node, Consumer<String> action) {
+        if (node.isEnd) {
+            action.accept(node.word);
+        }
+        for (TrieNode child : node.children) {
+            if (child != null) {
+                forEach(child, action);
+            }
+        }
+    }
+
+    /**
+     * Computes the Aho-Corasick links breadth first. fail points to the node
+     * for the longest proper suffix of this node's string that is also in the
+     * trie. output points to the nearest node along the fail chain that ends
+     * a word. An insert makes the links stale; the next call rebuilds them.
+     */
+    TrieNode buildLinks() {
+        if (linked) {
+            return root;
+        }
+        ArrayDeque<TrieNode> queue = new ArrayDeque<>();
+        root.fail = root;
+        root.output = null;
+        queue.offer(root);
+
+        while (!queue.isEmpty()) {
+            TrieNode node = queue.poll();
+            for (int i = 0; i < 26; i++) {
+                TrieNode child = node.children[i];
+                if (child == null) {
+                    continue;
+                }
+                TrieNode f = node.fail;
+                while (f != root && f.children[i] == null) {
+                    f = f.fail;
+                }
+                child.fail = node != root && f.children[i] != null ? f.children[i] : root;
+                child.output = child.fail.isEnd ? child.fail : child.fail.output;
+                queue.offer(child);
+            }
+        }
+
+        linked = true;
+        return root;
+    }
+
+    // Returns the nodes from the root down to the end of word, creating any that are missing.
+    private TrieNode[] createPath(String word) {
+        linked = false;
+        TrieNode[] path = new TrieNode[word.length() + 1];
         TrieNode node = root;
+        path[0] = node;
 
         for (int i = 0; i < word.length(); i++) {
             char c = word.charAt(i);
@@ -24,9 +122,27 @@ public class Trie {
             } else {
                 node = node.children[index];
             }
+            path[i + 1] = node;
         }
 
+        return path;
+    }
+
+    private void setWeight(TrieNode[] path, String word, long weight) {
+        TrieNode node = path[path.length - 1];
+        long oldWeight = node.weighted ? node.weight : weight;
         node.isEnd = true;
+        node.weighted = true;
+        node.word = word;
+        node.weight = weight;
+
+        // Deepest first, so a node that has to rebuild sees its children already updated.
+        // The root is skipped because topK never matches the empty prefix.
+        for (int d = path.length - 1; d >= 1; d--) {
+            if (!path[d].offer(word, weight, oldWeight, maxSuggestions)) {
+                path[d].rebuildTop(maxSuggestions);
+            }
+        }
     }
 
     // Returns if the word is in the trie.
@@ -71,6 +187,35 @@ public class Trie {
 
     public static void main(String[] args) {
 
+        // topK latency for one-character prefixes, the most expensive case without the cache.
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(17);
+        Trie weighted = new Trie();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int length = 3 + random.nextInt(10);
+            StringBuilder sb = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            weighted.insert(sb.toString(), (long) (1e9 / (1 + random.nextInt(count))));
+        }
+        System.out.printf("inserted %d weighted words in %dms%n", count, (System.nanoTime() - start) / 1_000_000);
+
+        int queries = 1_000_000;
+        long[] latencies = new long[queries];
+        long sink = 0;
+        for (int i = 0; i < queries; i++) {
+            String prefix = String.valueOf((char) ('a' + random.nextInt(26)));
+            long t = System.nanoTime();
+            sink += weighted.topK(prefix, 10).size();
+            latencies[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("topK(1 char, 10): p50=%dns p99=%dns (%d)%n",
+                latencies[queries / 2], latencies[queries * 99 / 100], sink);
+        System.out.println(weighted.topK("a", 5));
+
         Trie trie = new Trie();
         trie.insert("Naren");
         trie.insert("Nathan");
@@ -9,10 +9,96 @@ public class TrieNode {
     TrieNode[] children = new TrieNode[26];
     boolean isEnd;
 
+    // Set on word nodes; weight only when weighted, by weighted insertion.
+    String word;
+    boolean weighted;
+    long weight;
+
+    // Best weighted completions under this node, highest weight first; allocated on
+    // first weighted insert below it, so tries without weights never pay for them.
+    String[] topWords;
+    long[] topWeights;
+    int topCount;
+
+    // Aho-Corasick links, filled in by Trie.buildLinks.
+    TrieNode fail, output;
+
     public TrieNode(char c) {
         this.c = c;
     }
 
     public TrieNode() {
     }
+
+    // Orders suggestions by weight, then alphabetically so ties are stable.
+    static boolean ranksBefore(String w1, long weight1, String w2, long weight2) {
+        return weight1 != weight2 ? weight1 > weight2 : w1.compareTo(w2) < 0;
+    }
+
+    /**
+     * Updates the cached suggestions after word's weight changed from
+     * oldWeight to weight. Returns false if the list may now be missing a
+     * better word from further down, and must be rebuilt from the children.
+     */
+    boolean offer(String word, long weight, long oldWeight, int max) {
+        if (topWords == null) {
+            topWords = new String[max];
+            topWeights = new long[max];
+        }
+        int i = 0;
+        while (i < topCount && !topWords[i].equals(word)) {
+            i++;
+        }
+        boolean found = i < topCount;
+        if (!found) {
+            if (topCount < max) {
+                topCount++;
+            } else if (ranksBefore(word, weight, topWords[max - 1], topWeights[max - 1])) {
+                i = max - 1;
+            } else {
+                return true;
+            }
+        }
+        topWords[i] = word;
+        topWeights[i] = weight;
+        // Move it up or down into place.
+        while (i > 0 && ranksBefore(word, weight, topWords[i - 1], topWeights[i - 1])) {
+            swap(i, i - 1);
+            i--;
+        }
+        while (i + 1 < topCount && ranksBefore(topWords[i + 1], topWeights[i + 1], word, weight)) {
+            swap(i, i + 1);
+            i++;
+        }
+        return !found || weight >= oldWeight || topCount < max;
+    }
+
+    // Recomputes the suggestions from this node's own word and its children's lists.
+    void rebuildTop(int max) {
+        topCount = 0;
+        if (weighted) {
+            offer(word, weight, weight, max);
+        }
+        for (TrieNode child : children) {
+            if (child == null) {
+                continue;
+            }
+            for (int j = 0; j < child.topCount; j++) {
+                if (topCount == max && !ranksBefore(child.topWords[j], child.topWeights[j],
+                        topWords[max - 1], topWeights[max - 1])) {
+                    break;
+                }
+                offer(child.topWords[j], child.topWeights[j], child.topWeights[j], max);
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        String w = topWords[a];
+        topWords[a] = topWords[b];
+        topWords[b] = w;
+        long t = topWeights[a];
+        topWeights[a] = topWeights[b];
+        topWeights[b] = t;
+    }
 }
@@ -0,0 +1,118 @@
+package Datastructures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Naren on 10/18/26.
+ */
+public class ConcurrentTrieTest {
+
+  private static final int THREADS = 8;
+
+  @Test
+  public void concurrentInsertsLoseNoWords() throws Exception {
+
+    ConcurrentTrie trie = new ConcurrentTrie();
+    List<String> all = new ArrayList<>();
+    List<List<String>> perThread = new ArrayList<>();
+    Random random = new Random(23);
+
+    // Short words over a small alphabet, so threads constantly race on the same nodes.
+    for (int t = 0; t < THREADS; t++) {
+      List<String> words = new ArrayList<>();
+      for (int i = 0; i < 20_000; i++) {
+        StringBuilder sb = new StringBuilder();
+        for (int j = 0, n = 1 + random.nextInt(6); j < n; j++) {
+          sb.append((char) ('a' + random.nextInt(4)));
+        }
+        words.add(sb.toString());
+      }
+      perThread.add(words);
+      all.addAll(words);
+    }
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (List<String> words : perThread) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (String w : words) {
+          trie.insert(w);
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    for (String w : all) {
+      assertTrue(w, trie.search(w));
+      assertTrue(w, trie.startsWith(w.substring(0, 1)));
+    }
+    assertFalse(trie.search("e"));
+    assertFalse(trie.startsWith(""));
+  }
+
+  @Test
+  public void readersSeeCompletedInsertsWhileWritersRun() throws Exception {
+
+    ConcurrentTrie trie = new ConcurrentTrie();
+    AtomicBoolean failed = new AtomicBoolean();
+    int words = 50_000;
+
+    // The writer inserts words in order; once a reader sees one, every earlier word must be visible.
+    Thread writer = new Thread(() -> {
+      for (int i = 0; i < words; i++) {
+        trie.insert(encode(i));
+      }
+    });
+    Thread reader = new Thread(() -> {
+      Random random = new Random(31);
+      // encode(0) to encode(verified - 1) are known to be visible.
+      int verified = 0;
+      while (verified < words && !failed.get()) {
+        // Probe ahead of the verified prefix, so a hit can come before the words that precede it.
+        int probe = Math.min(words - 1, verified + random.nextInt(4096));
+        if (trie.search(encode(probe))) {
+          for (int i = verified; i < probe; i++) {
+            if (!trie.search(encode(i))) {
+              failed.set(true);
+              return;
+            }
+          }
+          verified = probe + 1;
+        }
+      }
+    });
+    writer.start();
+    reader.start();
+    writer.join();
+    reader.join();
+
+    assertFalse(failed.get());
+  }
+
+  // Maps i to a word of letters so it fits the trie's 'a' to 'z' alphabet.
+  private static String encode(int i) {
+    StringBuilder sb = new StringBuilder();
+    do {
+      sb.append((char) ('a' + i % 26));
+      i /= 26;
+    } while (i > 0);
+    return sb.toString();
+  }
+}